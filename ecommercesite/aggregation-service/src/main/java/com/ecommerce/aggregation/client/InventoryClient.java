@@ -4,6 +4,9 @@ import com.ecommerce.common.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "inventory-service")
 public interface InventoryClient {
@@ -11,6 +14,9 @@ public interface InventoryClient {
     @GetMapping("/api/inventory/{skuCode}")
     ApiResponse<InventoryDto> getStock(@PathVariable("skuCode") String skuCode);
 
+    @GetMapping("/api/inventory/batch")
+    ApiResponse<List<InventoryDto>> getStockBySkuCodes(@RequestParam("skuCodes") List<String> skuCodes);
+
     record InventoryDto(
             Long id, String skuCode, Integer quantity,
             Integer reservedQuantity, Integer availableQuantity, boolean lowStock
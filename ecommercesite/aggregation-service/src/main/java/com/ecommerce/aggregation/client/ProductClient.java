@@ -4,9 +4,11 @@ import com.ecommerce.common.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @FeignClient(name = "product-service")
 public interface ProductClient {
@@ -14,6 +16,9 @@ public interface ProductClient {
     @GetMapping("/api/products/{id}")
     ApiResponse<ProductDto> getProductById(@PathVariable("id") Long id);
 
+    @GetMapping("/api/products/batch")
+    ApiResponse<List<ProductDto>> getProductsByIds(@RequestParam("ids") List<Long> ids);
+
     record ProductDto(
             Long id, String name, String description,
             BigDecimal price, String skuCode, String category,
@@ -0,0 +1,30 @@
+package com.ecommerce.aggregation.config;
+
+import com.ecommerce.common.concurrent.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AggregationExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor aggregationExecutor(
+            @Value("${aggregation.executor.core-size:16}") int coreSize,
+            @Value("${aggregation.executor.max-size:64}") int maxSize,
+            @Value("${aggregation.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("aggregation-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // When saturated, run the call on the request thread instead of failing it
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
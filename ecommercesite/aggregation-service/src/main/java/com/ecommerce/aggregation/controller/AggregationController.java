@@ -1,5 +1,6 @@
 package com.ecommerce.aggregation.controller;
 
+import com.ecommerce.aggregation.dto.ProductDetailsBatchItem;
 import com.ecommerce.aggregation.dto.ProductDetailsResponse;
 import com.ecommerce.aggregation.service.AggregationService;
 import com.ecommerce.common.dto.ApiResponse;
@@ -10,8 +11,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/product-details")
 @RequiredArgsConstructor
@@ -20,12 +24,23 @@ public class AggregationController {
 
     private final AggregationService aggregationService;
 
+    @GetMapping("/batch")
+    @Operation(summary = "Get aggregated product details for a page of products",
+            description = "Resolves all IDs with one product lookup and one inventory lookup. "
+                    + "Items are returned in request order, each with its own status")
+    public ResponseEntity<ApiResponse<List<ProductDetailsBatchItem>>> getProductDetailsBatch(
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(ApiResponse.success(aggregationService.getProductDetailsBatch(ids)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get aggregated product details",
-            description = "Fetches product data and inventory data, combines them into a single optimized payload")
+            description = "Fetches product data and inventory data, combines them into a single optimized payload. "
+                    + "Passing the SKU lets both lookups run concurrently")
     public ResponseEntity<ApiResponse<ProductDetailsResponse>> getProductDetails(
-            @PathVariable Long id) {
-        ProductDetailsResponse response = aggregationService.getProductDetails(id);
+            @PathVariable Long id,
+            @RequestParam(required = false) String sku) {
+        ProductDetailsResponse response = aggregationService.getProductDetails(id, sku);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
@@ -0,0 +1,25 @@
+package com.ecommerce.aggregation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductDetailsBatchItem {
+
+    private Long productId;
+    private Status status;
+    private ProductDetailsResponse details;
+
+    public enum Status {
+        OK,
+        PRODUCT_NOT_FOUND,
+        INVENTORY_UNAVAILABLE
+    }
+}
@@ -2,34 +2,163 @@ package com.ecommerce.aggregation.service;
 
 import com.ecommerce.aggregation.client.InventoryClient;
 import com.ecommerce.aggregation.client.ProductClient;
+import com.ecommerce.aggregation.dto.ProductDetailsBatchItem;
 import com.ecommerce.aggregation.dto.ProductDetailsResponse;
 import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.ecommerce.common.exception.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AggregationService {
 
+    private static final Duration PRODUCT_RETRY_AFTER = Duration.ofSeconds(1);
+
     private final ProductClient productClient;
     private final InventoryClient inventoryClient;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration productTimeout;
+    private final Duration inventoryTimeout;
+    private final int maxBatchSize;
+    // A product's SKU rarely changes; a stale entry is caught like a wrong hint
+    private final Cache<Long, String> knownSkus;
+
+    public AggregationService(ProductClient productClient,
+                              InventoryClient inventoryClient,
+                              @Qualifier("aggregationExecutor") ThreadPoolTaskExecutor executor,
+                              @Value("${aggregation.timeout.product:2s}") Duration productTimeout,
+                              @Value("${aggregation.timeout.inventory:500ms}") Duration inventoryTimeout,
+                              @Value("${aggregation.batch.max-size:100}") int maxBatchSize,
+                              @Value("${aggregation.known-skus.max-size:10000}") long knownSkusMaxSize) {
+        this.productClient = productClient;
+        this.inventoryClient = inventoryClient;
+        this.executor = executor;
+        this.productTimeout = productTimeout;
+        this.inventoryTimeout = inventoryTimeout;
+        this.maxBatchSize = maxBatchSize;
+        this.knownSkus = Caffeine.newBuilder().maximumSize(knownSkusMaxSize).build();
+    }
 
     public ProductDetailsResponse getProductDetails(Long productId) {
+        return getProductDetails(productId, null);
+    }
+
+    /**
+     * Inventory is keyed by SKU, so the inventory lookup starts alongside the product lookup
+     * whenever the SKU is known: from the caller's hint (listing tiles pass one) or from an
+     * earlier lookup of the same product. Only a product seen for the first time without a
+     * hint has its inventory lookup chained onto the product response. A SKU that turns out
+     * wrong has its lookup cancelled and repeated with the product's own SKU.
+     *
+     * <p>A product lookup that times out fails the request with 503.
+     */
+    public ProductDetailsResponse getProductDetails(Long productId, String skuHint) {
         log.info("Aggregating product details for ID: {}", productId);
 
-        // Fetch product data
-        ApiResponse<ProductClient.ProductDto> productResponse = productClient.getProductById(productId);
-        if (!productResponse.isSuccess() || productResponse.getData() == null) {
-            throw new ResourceNotFoundException("Product", "id", productId);
+        String sku = skuHint != null ? skuHint : knownSkus.getIfPresent(productId);
+        CompletableFuture<ProductClient.ProductDto> productFuture = fetchProduct(productId);
+        CompletableFuture<ApiResponse<InventoryClient.InventoryDto>> inventoryFuture = sku != null
+                ? fetchInventory(sku)
+                : productFuture.thenCompose(product -> fetchInventory(product.skuCode()));
+
+        ProductClient.ProductDto product;
+        try {
+            product = join(productFuture, "product " + productId);
+        } catch (RuntimeException e) {
+            inventoryFuture.cancel(true);
+            throw e;
+        }
+        knownSkus.put(productId, product.skuCode());
+        if (sku != null && !sku.equals(product.skuCode())) {
+            log.debug("SKU {} does not match product {}; refetching inventory", sku, productId);
+            inventoryFuture.cancel(true);
+            inventoryFuture = fetchInventory(product.skuCode());
+        }
+
+        ProductDetailsResponse.ProductDetailsResponseBuilder builder = productDetails(product);
+
+        ApiResponse<InventoryClient.InventoryDto> inventoryResponse = inventoryFuture.join();
+        if (inventoryResponse == null) {
+            inventoryUnknown(builder);
+        } else if (inventoryResponse.isSuccess() && inventoryResponse.getData() != null) {
+            applyInventory(builder, inventoryResponse.getData());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Resolves a page of products with one product-service call and one inventory-service
+     * call, returning one item per distinct requested ID in request order. Missing products
+     * and missing or unavailable inventory are reported per item instead of failing the batch.
+     */
+    public List<ProductDetailsBatchItem> getProductDetailsBatch(List<Long> productIds) {
+        List<Long> ids = productIds.stream().distinct().toList();
+        if (ids.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " product IDs can be requested at once");
         }
+        log.info("Aggregating product details for {} IDs", ids.size());
+
+        Map<Long, ProductClient.ProductDto> products = join(fetchProducts(ids), ids.size() + " products");
+        products.values().forEach(product -> knownSkus.put(product.id(), product.skuCode()));
+
+        List<String> skuCodes = products.values().stream()
+                .map(ProductClient.ProductDto::skuCode)
+                .distinct()
+                .toList();
+        Map<String, InventoryClient.InventoryDto> inventory = skuCodes.isEmpty()
+                ? Map.of()
+                : fetchInventoryBatch(skuCodes).join();
+
+        List<ProductDetailsBatchItem> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductClient.ProductDto product = products.get(id);
+            if (product == null) {
+                items.add(ProductDetailsBatchItem.builder()
+                        .productId(id)
+                        .status(ProductDetailsBatchItem.Status.PRODUCT_NOT_FOUND)
+                        .build());
+                continue;
+            }
 
-        ProductClient.ProductDto product = productResponse.getData();
+            ProductDetailsResponse.ProductDetailsResponseBuilder builder = productDetails(product);
+            InventoryClient.InventoryDto stock = inventory != null ? inventory.get(product.skuCode()) : null;
+            if (stock != null) {
+                applyInventory(builder, stock);
+            } else {
+                inventoryUnknown(builder);
+            }
+            items.add(ProductDetailsBatchItem.builder()
+                    .productId(id)
+                    .status(stock != null ? ProductDetailsBatchItem.Status.OK
+                            : ProductDetailsBatchItem.Status.INVENTORY_UNAVAILABLE)
+                    .details(builder.build())
+                    .build());
+        }
+        return items;
+    }
 
-        // Fetch inventory data
-        ProductDetailsResponse.ProductDetailsResponseBuilder builder = ProductDetailsResponse.builder()
+    private static ProductDetailsResponse.ProductDetailsResponseBuilder productDetails(ProductClient.ProductDto product) {
+        return ProductDetailsResponse.builder()
                 .productId(product.id())
                 .name(product.name())
                 .description(product.description())
@@ -37,21 +166,88 @@ public class AggregationService {
                 .skuCode(product.skuCode())
                 .category(product.category())
                 .imageUrl(product.imageUrl());
+    }
+
+    private static void applyInventory(ProductDetailsResponse.ProductDetailsResponseBuilder builder,
+                                       InventoryClient.InventoryDto inventory) {
+        builder.totalQuantity(inventory.quantity())
+                .availableQuantity(inventory.availableQuantity())
+                .inStock(inventory.availableQuantity() > 0)
+                .lowStock(inventory.lowStock());
+    }
+
+    private static void inventoryUnknown(ProductDetailsResponse.ProductDetailsResponseBuilder builder) {
+        builder.totalQuantity(0).availableQuantity(0).inStock(false).lowStock(false);
+    }
+
+    private CompletableFuture<ProductClient.ProductDto> fetchProduct(Long productId) {
+        return CompletableFuture.supplyAsync(() -> {
+                    ApiResponse<ProductClient.ProductDto> response = productClient.getProductById(productId);
+                    if (!response.isSuccess() || response.getData() == null) {
+                        throw new ResourceNotFoundException("Product", "id", productId);
+                    }
+                    return response.getData();
+                }, executor)
+                .orTimeout(productTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private CompletableFuture<Map<Long, ProductClient.ProductDto>> fetchProducts(List<Long> ids) {
+        return CompletableFuture.supplyAsync(() -> {
+                    ApiResponse<List<ProductClient.ProductDto>> response = productClient.getProductsByIds(ids);
+                    if (!response.isSuccess() || response.getData() == null) {
+                        return Map.<Long, ProductClient.ProductDto>of();
+                    }
+                    return response.getData().stream()
+                            .collect(Collectors.toMap(ProductClient.ProductDto::id, Function.identity(), (a, b) -> a));
+                }, executor)
+                .orTimeout(productTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Completes with {@code null} when inventory-service fails or does not answer in time,
+     * which callers treat as "inventory unknown".
+     */
+    private CompletableFuture<ApiResponse<InventoryClient.InventoryDto>> fetchInventory(String skuCode) {
+        return CompletableFuture.supplyAsync(() -> inventoryClient.getStock(skuCode), executor)
+                .orTimeout(inventoryTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    log.warn("Could not fetch inventory for SKU: {}. Reason: {}", skuCode,
+                            cause instanceof TimeoutException ? "timed out" : cause.getMessage());
+                    return null;
+                });
+    }
 
+    /**
+     * Completes with {@code null} when inventory-service fails or does not answer in time.
+     */
+    private CompletableFuture<Map<String, InventoryClient.InventoryDto>> fetchInventoryBatch(List<String> skuCodes) {
+        return CompletableFuture.supplyAsync(() -> {
+                    ApiResponse<List<InventoryClient.InventoryDto>> response = inventoryClient.getStockBySkuCodes(skuCodes);
+                    if (!response.isSuccess() || response.getData() == null) {
+                        return Map.<String, InventoryClient.InventoryDto>of();
+                    }
+                    return response.getData().stream()
+                            .collect(Collectors.toMap(InventoryClient.InventoryDto::skuCode, Function.identity(), (a, b) -> a));
+                }, executor)
+                .orTimeout(inventoryTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Could not fetch inventory for {} SKUs. Reason: {}", skuCodes.size(), e.getMessage());
+                    return null;
+                });
+    }
+
+    private static <T> T join(CompletableFuture<T> future, String what) {
         try {
-            ApiResponse<InventoryClient.InventoryDto> inventoryResponse = inventoryClient.getStock(product.skuCode());
-            if (inventoryResponse.isSuccess() && inventoryResponse.getData() != null) {
-                InventoryClient.InventoryDto inventory = inventoryResponse.getData();
-                builder.totalQuantity(inventory.quantity())
-                        .availableQuantity(inventory.availableQuantity())
-                        .inStock(inventory.availableQuantity() > 0)
-                        .lowStock(inventory.lowStock());
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ServiceUnavailableException("Timed out fetching " + what, PRODUCT_RETRY_AFTER);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
             }
-        } catch (Exception e) {
-            log.warn("Could not fetch inventory for SKU: {}. Reason: {}", product.skuCode(), e.getMessage());
-            builder.totalQuantity(0).availableQuantity(0).inStock(false).lowStock(false);
+            throw e;
         }
-
-        return builder.build();
     }
 }
@@ -0,0 +1,201 @@
+package com.ecommerce.aggregation.service;
+
+import com.ecommerce.aggregation.client.InventoryClient;
+import com.ecommerce.aggregation.client.ProductClient;
+import com.ecommerce.aggregation.dto.ProductDetailsBatchItem;
+import com.ecommerce.aggregation.dto.ProductDetailsResponse;
+import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Aggregation Service Tests")
+class AggregationServiceTest {
+
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final InventoryClient inventoryClient = mock(InventoryClient.class);
+    private ThreadPoolTaskExecutor executor;
+    private AggregationService aggregationService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        aggregationService = new AggregationService(productClient, inventoryClient, executor,
+                Duration.ofMillis(200), Duration.ofMillis(200), 100, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Batch details come back in request order, each with its own status")
+    void getProductDetailsBatch_MixedResults() {
+        when(productClient.getProductsByIds(List.of(2L, 9L, 1L)))
+                .thenReturn(ApiResponse.success(List.of(product(1L, "SKU-1"), product(2L, "SKU-2"))));
+        when(inventoryClient.getStockBySkuCodes(anyList()))
+                .thenReturn(ApiResponse.success(List.of(stock("SKU-1", 5))));
+
+        List<ProductDetailsBatchItem> items = aggregationService.getProductDetailsBatch(List.of(2L, 9L, 2L, 1L));
+
+        assertThat(items).extracting(ProductDetailsBatchItem::getProductId).containsExactly(2L, 9L, 1L);
+        assertThat(items).extracting(ProductDetailsBatchItem::getStatus).containsExactly(
+                ProductDetailsBatchItem.Status.INVENTORY_UNAVAILABLE,
+                ProductDetailsBatchItem.Status.PRODUCT_NOT_FOUND,
+                ProductDetailsBatchItem.Status.OK);
+        assertThat(items.get(2).getDetails().getAvailableQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("A batch above the limit is rejected before any lookup")
+    void getProductDetailsBatch_TooMany_Rejected() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThatThrownBy(() -> aggregationService.getProductDetailsBatch(ids))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(productClient, inventoryClient);
+    }
+
+    @Test
+    @DisplayName("A batch product lookup runs off the request thread and is bounded by the product timeout")
+    void getProductDetailsBatch_ProductTimeout_Fails() {
+        Thread caller = Thread.currentThread();
+        when(productClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            assertThat(Thread.currentThread()).isNotSameAs(caller);
+            Thread.sleep(1_000);
+            return ApiResponse.success(List.of());
+        });
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> aggregationService.getProductDetailsBatch(List.of(1L)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(900));
+        verify(productClient).getProductsByIds(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("With a SKU hint the inventory lookup runs while the product lookup is still out")
+    void getProductDetails_WithHint_LookupsOverlap() throws Exception {
+        CountDownLatch inventoryStarted = new CountDownLatch(1);
+        when(inventoryClient.getStock("SKU-1")).thenAnswer(invocation -> {
+            inventoryStarted.countDown();
+            return ApiResponse.success(stock("SKU-1", 3));
+        });
+        when(productClient.getProductById(1L)).thenAnswer(invocation -> {
+            assertThat(inventoryStarted.await(1, TimeUnit.SECONDS)).isTrue();
+            return ApiResponse.success(product(1L, "SKU-1"));
+        });
+
+        ProductDetailsResponse details = aggregationService.getProductDetails(1L, "SKU-1");
+
+        assertThat(details.getAvailableQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Without a hint a product seen before starts its inventory lookup right away")
+    void getProductDetails_KnownSku_LookupsOverlap() throws Exception {
+        when(productClient.getProductById(1L)).thenReturn(ApiResponse.success(product(1L, "SKU-1")));
+        when(inventoryClient.getStock("SKU-1")).thenReturn(ApiResponse.success(stock("SKU-1", 3)));
+        aggregationService.getProductDetails(1L);
+
+        CountDownLatch inventoryStarted = new CountDownLatch(1);
+        when(inventoryClient.getStock("SKU-1")).thenAnswer(invocation -> {
+            inventoryStarted.countDown();
+            return ApiResponse.success(stock("SKU-1", 2));
+        });
+        when(productClient.getProductById(1L)).thenAnswer(invocation -> {
+            assertThat(inventoryStarted.await(1, TimeUnit.SECONDS)).isTrue();
+            return ApiResponse.success(product(1L, "SKU-1"));
+        });
+
+        assertThat(aggregationService.getProductDetails(1L).getAvailableQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A wrong SKU hint is discarded and inventory is fetched for the product's own SKU")
+    void getProductDetails_WrongHint_Refetches() {
+        when(productClient.getProductById(1L)).thenReturn(ApiResponse.success(product(1L, "SKU-1")));
+        when(inventoryClient.getStock("SKU-WRONG")).thenReturn(ApiResponse.success(stock("SKU-WRONG", 99)));
+        when(inventoryClient.getStock("SKU-1")).thenReturn(ApiResponse.success(stock("SKU-1", 4)));
+
+        ProductDetailsResponse details = aggregationService.getProductDetails(1L, "SKU-WRONG");
+
+        assertThat(details.getSkuCode()).isEqualTo("SKU-1");
+        assertThat(details.getAvailableQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Inventory that times out is reported as unknown instead of failing the request")
+    void getProductDetails_InventoryTimeout_FallsBack() {
+        when(productClient.getProductById(1L)).thenReturn(ApiResponse.success(product(1L, "SKU-1")));
+        when(inventoryClient.getStock("SKU-1")).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return ApiResponse.success(stock("SKU-1", 4));
+        });
+
+        ProductDetailsResponse details = aggregationService.getProductDetails(1L);
+
+        assertThat(details.getName()).isEqualTo("Product 1");
+        assertThat(details.isInStock()).isFalse();
+        assertThat(details.getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Inventory that fails is reported as unknown instead of failing the request")
+    void getProductDetails_InventoryError_FallsBack() {
+        when(productClient.getProductById(1L)).thenReturn(ApiResponse.success(product(1L, "SKU-1")));
+        when(inventoryClient.getStock("SKU-1")).thenThrow(new IllegalStateException("connection refused"));
+
+        ProductDetailsResponse details = aggregationService.getProductDetails(1L);
+
+        assertThat(details.isInStock()).isFalse();
+        assertThat(details.getTotalQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("A product lookup that times out fails with 503")
+    void getProductDetails_ProductTimeout_ServiceUnavailable() {
+        when(productClient.getProductById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return ApiResponse.success(product(1L, "SKU-1"));
+        });
+
+        assertThatThrownBy(() -> aggregationService.getProductDetails(1L))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("product 1");
+        verify(inventoryClient, never()).getStock(anyString());
+    }
+
+    private static ProductClient.ProductDto product(Long id, String skuCode) {
+        return new ProductClient.ProductDto(id, "Product " + id, null, new BigDecimal("9.99"), skuCode,
+                "Tools", null, true, null, null);
+    }
+
+    private static InventoryClient.InventoryDto stock(String skuCode, int available) {
+        return new InventoryClient.InventoryDto(1L, skuCode, available, 0, available, false);
+    }
+}
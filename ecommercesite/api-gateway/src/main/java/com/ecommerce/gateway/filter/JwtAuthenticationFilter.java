@@ -1,11 +1,9 @@
 package com.ecommerce.gateway.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import com.ecommerce.gateway.security.JwtTokenVerifier;
+import com.ecommerce.gateway.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -16,15 +14,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
 import java.util.List;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final JwtTokenVerifier tokenVerifier;
 
     private static final List<String> OPEN_ENDPOINTS = List.of(
             "/api/auth/register",
@@ -59,16 +56,12 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         String token = authHeader.substring(7);
 
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            VerifiedToken verified = tokenVerifier.verify(token);
 
             // Propagate user context to downstream services
             ServerHttpRequest modifiedRequest = request.mutate()
-                    .header("X-Auth-User", claims.getSubject())
-                    .header("X-Auth-Roles", String.valueOf(claims.get("roles")))
+                    .header("X-Auth-User", verified.subject())
+                    .header("X-Auth-Roles", verified.roles())
                     .build();
 
             return chain.filter(exchange.mutate().request(modifiedRequest).build());
@@ -88,11 +81,6 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         return exchange.getResponse().setComplete();
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     @Override
     public int getOrder() {
         return -1;
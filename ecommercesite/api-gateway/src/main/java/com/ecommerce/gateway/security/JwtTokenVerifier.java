@@ -0,0 +1,112 @@
+package com.ecommerce.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * Verifies bearer tokens and remembers the outcome until the token expires, so a client
+ * reusing the same access token only pays for signature verification once.
+ * Entries are keyed by a SHA-256 digest of the token rather than the token itself.
+ */
+@Component
+@Slf4j
+public class JwtTokenVerifier {
+
+    private static final String CACHE_NAME = "gateway.jwt.verified-tokens";
+
+    private final JwtParser jwtParser;
+    private final Duration maxTtl;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtTokenVerifier(@Value("${jwt.secret}") String secretKey,
+                            @Value("${jwt.cache.max-size:100000}") long maxSize,
+                            @Value("${jwt.cache.max-ttl:15m}") Duration maxTtl,
+                            MeterRegistry meterRegistry) {
+        this.jwtParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)))
+                .build();
+        this.maxTtl = maxTtl;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, CACHE_NAME);
+    }
+
+    /**
+     * Returns the verified identity carried by the token, throwing the underlying
+     * {@link io.jsonwebtoken.JwtException} when the token is invalid or expired.
+     * Rejected tokens are never cached.
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.get(key, k -> parse(token));
+        if (cached.expiresAt().isBefore(Instant.now())) {
+            // Expiry is lazy in the cache; re-parsing surfaces the usual ExpiredJwtException
+            verifiedTokens.invalidate(key);
+            return parse(token);
+        }
+        return cached;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        Date expiration = claims.getExpiration();
+        Instant expiresAt = expiration != null
+                ? expiration.toInstant()
+                : Instant.now().plus(maxTtl);
+        return new VerifiedToken(claims.getSubject(), String.valueOf(claims.get("roles")), expiresAt);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return Math.min(remaining.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.gateway.security;
+
+import java.time.Instant;
+
+public record VerifiedToken(String subject, String roles, Instant expiresAt) {
+}
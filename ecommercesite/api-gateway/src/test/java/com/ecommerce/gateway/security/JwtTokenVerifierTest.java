@@ -0,0 +1,96 @@
+package com.ecommerce.gateway.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("JWT Token Verifier Tests")
+class JwtTokenVerifierTest {
+
+    private static final String SECRET = "Zm9yLXRlc3RzLW9ubHktZm9yLXRlc3RzLW9ubHktZm9yLXRlc3RzLW9ubHkhIQ==";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("A repeated token is served from the cache without being parsed again")
+    void verify_SameToken_CacheHit() {
+        JwtTokenVerifier verifier = verifier(Duration.ofMinutes(15));
+        String token = token(Instant.now().plus(Duration.ofHours(1)));
+
+        VerifiedToken first = verifier.verify(token);
+        VerifiedToken second = verifier.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.subject()).isEqualTo("alice");
+        assertThat(first.roles()).isEqualTo("USER");
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A long-lived token is re-verified once the max TTL has passed")
+    void verify_LongLivedToken_CappedByMaxTtl() throws InterruptedException {
+        JwtTokenVerifier verifier = verifier(Duration.ofMillis(50));
+        String token = token(Instant.now().plus(Duration.ofHours(1)));
+
+        VerifiedToken first = verifier.verify(token);
+        Thread.sleep(150);
+        VerifiedToken second = verifier.verify(token);
+
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+        assertThat(gets("miss")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("A cached token stops being accepted once it expires")
+    void verify_CachedTokenExpires_Rejected() throws InterruptedException {
+        JwtTokenVerifier verifier = verifier(Duration.ofMinutes(15));
+        Instant expiresAt = Instant.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        String token = token(expiresAt);
+
+        assertThat(verifier.verify(token).expiresAt()).isEqualTo(expiresAt);
+        Thread.sleep(Duration.between(Instant.now(), expiresAt).plusMillis(200).toMillis());
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("An expired token is rejected every time and never cached")
+    void verify_ExpiredToken_NotCached() {
+        JwtTokenVerifier verifier = verifier(Duration.ofMinutes(15));
+        String token = token(Instant.now().minus(Duration.ofMinutes(1)));
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(gets("hit")).isZero();
+    }
+
+    private JwtTokenVerifier verifier(Duration maxTtl) {
+        return new JwtTokenVerifier(SECRET, 1000, maxTtl, meterRegistry);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).functionCounter().count();
+    }
+
+    private static String token(Instant expiresAt) {
+        return Jwts.builder()
+                .subject("alice")
+                .claim("roles", "USER")
+                .expiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,16 +8,23 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+/**
+ * A page of results. Offset pages carry page numbers and totals; cursor pages carry
+ * {@code nextCursor} instead (absent on the last page) and skip the count query, so those
+ * fields are omitted.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
 
     private List<T> content;
-    private int pageNumber;
+    private Integer pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean last;
+    private String nextCursor;
 }
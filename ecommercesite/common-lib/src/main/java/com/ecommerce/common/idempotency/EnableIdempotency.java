@@ -0,0 +1,20 @@
+package com.ecommerce.common.idempotency;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers {@link IdempotencyService} along with its entity and repository. Opt-in, since
+ * every service scans {@code com.ecommerce.common} but only some have the table.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(IdempotencyConfiguration.class)
+public @interface EnableIdempotency {
+}
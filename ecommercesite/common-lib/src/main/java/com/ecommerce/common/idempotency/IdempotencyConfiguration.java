@@ -0,0 +1,14 @@
+package com.ecommerce.common.idempotency;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Adds this package to the auto-configuration packages, so JPA picks up the entity and
+ * Spring Data the repository alongside the application's own. Deliberately not a
+ * {@code @Configuration}: component scanning must not register it.
+ */
+@AutoConfigurationPackage
+@Import(IdempotencyService.class)
+class IdempotencyConfiguration {
+}
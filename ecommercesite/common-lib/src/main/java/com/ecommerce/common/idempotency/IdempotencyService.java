@@ -0,0 +1,201 @@
+package com.ecommerce.common.idempotency;
+
+import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.ConflictException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Honors {@code Idempotency-Key} headers. The first request with a key claims it by inserting
+ * a row (the unique index settles races between instances), runs, and stores its response;
+ * later requests with the same key and body get that response replayed. Completed records
+ * are also kept in a bounded in-memory index so hot retries skip the database.
+ *
+ * <p>A claim is a lease: once it has been pending for {@code idempotency.pending-timeout}
+ * without a response, the process running it is assumed dead and a retry with the same body
+ * takes the key over. The timeout must therefore exceed the longest a request can run.
+ *
+ * <p>Registered by {@link EnableIdempotency}; the service needs its {@code idempotency_keys} table.
+ */
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration pendingTimeout;
+    private final Cache<String, IdempotencyRecord> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache.max-size:10000}") long maxSize,
+                              @Value("${idempotency.retention:24h}") Duration retention,
+                              @Value("${idempotency.pending-timeout:5m}") Duration pendingTimeout) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.pendingTimeout = pendingTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public <T> ResponseEntity<ApiResponse<T>> execute(String key, Object request, Class<T> responseType,
+                                                     Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        String requestHash = digest(request);
+
+        IdempotencyRecord existing = find(key);
+        if (existing != null && isAbandoned(existing, requestHash)) {
+            // Whichever retry deletes the stale claim, only one can insert the new one
+            LocalDateTime cutoff = LocalDateTime.now().minus(pendingTimeout);
+            if (Integer.valueOf(1).equals(transactionTemplate.execute(status -> repository.deleteStalePending(key, cutoff)))) {
+                log.warn("Idempotency key {} was pending for over {}, taking it over", key, pendingTimeout);
+            }
+            existing = null;
+        }
+        if (existing == null) {
+            Long claimed = claim(key, requestHash);
+            if (claimed != null) {
+                return runAndStore(claimed, key, action);
+            }
+            existing = find(key);
+        }
+        return replay(existing, requestHash, responseType);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private IdempotencyRecord find(String key) {
+        IdempotencyRecord cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        IdempotencyRecord record = repository.findByIdempotencyKey(key).orElse(null);
+        if (record != null && record.isCompleted()) {
+            completed.put(key, record);
+        }
+        return record;
+    }
+
+    private boolean isAbandoned(IdempotencyRecord record, String requestHash) {
+        return !record.isCompleted()
+                && record.getRequestHash().equals(requestHash)
+                && record.getCreatedAt() != null
+                && record.getCreatedAt().isBefore(LocalDateTime.now().minus(pendingTimeout));
+    }
+
+    /** The claimed record's ID, or null when another request holds the key. */
+    private Long claim(String key, String requestHash) {
+        try {
+            return transactionTemplate.execute(status -> repository.saveAndFlush(IdempotencyRecord.builder()
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .build()).getId());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key {} was claimed concurrently", key);
+            return null;
+        }
+    }
+
+    // Works on the claimed row by ID, so a request that outlived its lease cannot complete or
+    // release the claim of the retry that took the key over
+    private <T> ResponseEntity<ApiResponse<T>> runAndStore(Long claimId, String key,
+                                                          Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        ResponseEntity<ApiResponse<T>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Nothing was committed on behalf of this key, so let the client retry with it
+            transactionTemplate.executeWithoutResult(status -> repository.deletePending(claimId));
+            throw e;
+        }
+
+        try {
+            String body = objectMapper.writeValueAsString(response.getBody());
+            IdempotencyRecord record = transactionTemplate.execute(status -> repository.findById(claimId)
+                    .map(claimed -> {
+                        claimed.setResponseStatus(response.getStatusCode().value());
+                        claimed.setResponseBody(body);
+                        return claimed;
+                    })
+                    .orElse(null));
+            if (record != null) {
+                completed.put(key, record);
+            } else {
+                log.warn("Idempotency key {} was taken over before its response was stored", key);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Free the key rather than leave it "still processing" until the lease runs out; a
+            // retry will run the action again
+            log.error("Failed to store response for idempotency key {}, releasing it", key, e);
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.deletePending(claimId));
+            } catch (RuntimeException releaseFailure) {
+                log.error("Failed to release idempotency key {}", key, releaseFailure);
+            }
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (record == null || !record.isCompleted()) {
+            throw new ConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key was already used for a different request");
+        }
+
+        log.info("Replaying stored response for idempotency key {}", record.getIdempotencyKey());
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, responseType);
+        try {
+            ApiResponse<T> body = objectMapper.readValue(record.getResponseBody(), type);
+            return ResponseEntity.status(record.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key is unreadable", e);
+        }
+    }
+
+    private String digest(Object request) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Request cannot be serialized", e);
+        }
+    }
+}
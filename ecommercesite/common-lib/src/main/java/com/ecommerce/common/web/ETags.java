@@ -0,0 +1,89 @@
+package com.ecommerce.common.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support for controllers. A strong ETag identifies one version of a single
+ * resource (typically its ID and last-modified time); a weak ETag identifies a list's content.
+ * The response envelope's timestamp is not resource state and is left out of both.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String strong(Object... components) {
+        return "\"" + digest(components) + "\"";
+    }
+
+    public static String weak(Object... components) {
+        return "W/\"" + digest(components) + "\"";
+    }
+
+    /**
+     * Answers 304 with no body when the request's {@code If-None-Match} matches {@code etag};
+     * only otherwise is the body built and returned with a 200. The ETag header is set either way.
+     */
+    public static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(body.get());
+    }
+
+    /**
+     * For resources whose version is cheaper to read than their body: when the request carries
+     * {@code If-None-Match} and the tag from {@code version} matches it, answers 304 without
+     * calling {@code otherwise}. Any other request (no header, no match, or an empty version,
+     * such as for a missing resource) is handled by {@code otherwise}, typically a
+     * {@link #conditional} call on the loaded body.
+     */
+    public static <T> ResponseEntity<T> conditionalOnVersion(WebRequest request, Supplier<Optional<String>> version,
+                                                             Supplier<ResponseEntity<T>> otherwise) {
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            Optional<String> etag = version.get();
+            if (etag.isPresent() && matchesAny(ifNoneMatch, etag.get()) && request.checkNotModified(etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
+        return otherwise.get();
+    }
+
+    // Weak comparison, as If-None-Match uses
+    private static boolean matchesAny(String[] headerValues, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String headerValue : headerValues) {
+            for (String candidate : headerValue.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String digest(Object... components) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object component : components) {
+                digest.update(String.valueOf(component).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.ecommerce.inventory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"com.ecommerce.inventory", "com.ecommerce.common"})
+@EnableScheduling
 public class InventoryServiceApplication {
 
     public static void main(String[] args) {
@@ -1,17 +1,29 @@
 package com.ecommerce.inventory.controller;
 
 import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.ConflictException;
+import com.ecommerce.common.web.ETags;
+import com.ecommerce.inventory.dto.BatchReservationRequest;
+import com.ecommerce.inventory.dto.BatchReservationResponse;
 import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.dto.StockLookupRequest;
 import com.ecommerce.inventory.dto.StockRequest;
 import com.ecommerce.inventory.service.InventoryService;
+import com.ecommerce.inventory.service.LowStockMonitor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -20,11 +32,30 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final LowStockMonitor lowStockMonitor;
 
     @GetMapping("/{skuCode}")
     @Operation(summary = "Get stock by SKU code")
-    public ResponseEntity<ApiResponse<InventoryResponse>> getStock(@PathVariable String skuCode) {
-        return ResponseEntity.ok(ApiResponse.success(inventoryService.getStock(skuCode)));
+    public ResponseEntity<ApiResponse<InventoryResponse>> getStock(@PathVariable String skuCode, WebRequest webRequest) {
+        InventoryResponse response = inventoryService.getStock(skuCode);
+        return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get stock for multiple SKU codes", description = "Unknown SKU codes are omitted")
+    public ResponseEntity<ApiResponse<List<InventoryResponse>>> getStockBySkuCodes(
+            @RequestParam List<String> skuCodes,
+            WebRequest webRequest) {
+        List<InventoryResponse> response = inventoryService.getStockBySkuCodes(skuCodes);
+        return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "Look up availability for many SKU codes",
+            description = "Returns available quantity and low-stock flag keyed by SKU code; unknown SKU codes are omitted")
+    public ResponseEntity<ApiResponse<Map<String, StockLevel>>> lookupStock(
+            @Valid @RequestBody StockLookupRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(inventoryService.lookupStock(request.getSkuCodes())));
     }
 
     @PostMapping("/add")
@@ -39,6 +70,22 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success("Stock reserved", inventoryService.reserveStock(request)));
     }
 
+    @PostMapping("/reserve-batch")
+    @Operation(summary = "Reserve stock for all items of an order",
+            description = "All-or-nothing: when any SKU is short nothing is reserved and the call fails "
+                    + "with 409, naming every SKU that could not be satisfied")
+    public ResponseEntity<ApiResponse<BatchReservationResponse>> reserveBatch(
+            @Valid @RequestBody BatchReservationRequest request) {
+        BatchReservationResponse response = inventoryService.reserveBatch(request);
+        if (!response.isReserved()) {
+            throw new ConflictException("Insufficient stock for: " + response.getShortfalls().stream()
+                    .map(shortfall -> shortfall.getSkuCode() + " (requested " + shortfall.getRequested()
+                            + ", available " + shortfall.getAvailable() + ")")
+                    .collect(Collectors.joining(", ")));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Stock reserved", response));
+    }
+
     @PostMapping("/release")
     @Operation(summary = "Release reserved stock")
     public ResponseEntity<ApiResponse<InventoryResponse>> releaseStock(@Valid @RequestBody StockRequest request) {
@@ -51,6 +98,34 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success("Stock deducted", inventoryService.confirmStockDeduction(request)));
     }
 
+    @PostMapping("/orders/{orderNumber}/release")
+    @Operation(summary = "Release all stock held for an order",
+            description = "Idempotent: holds already released, confirmed or expired are left alone")
+    public ResponseEntity<ApiResponse<List<InventoryResponse>>> releaseOrder(@PathVariable String orderNumber) {
+        return ResponseEntity.ok(ApiResponse.success("Order stock released", inventoryService.releaseOrder(orderNumber)));
+    }
+
+    @PostMapping("/orders/{orderNumber}/confirm")
+    @Operation(summary = "Deduct all stock held for an order",
+            description = "All-or-nothing and idempotent; fails if any of the order's holds was released or expired")
+    public ResponseEntity<ApiResponse<List<InventoryResponse>>> confirmOrder(@PathVariable String orderNumber) {
+        return ResponseEntity.ok(ApiResponse.success("Order stock deducted", inventoryService.confirmOrder(orderNumber)));
+    }
+
+    @PostMapping("/{skuCode}/flash-sale")
+    @Operation(summary = "Put a SKU in flash-sale mode",
+            description = "Its stock is then held in this node's in-memory ledger and written back to the "
+                    + "database periodically; all requests for the SKU must reach this node")
+    public ResponseEntity<ApiResponse<InventoryResponse>> startFlashSale(@PathVariable String skuCode) {
+        return ResponseEntity.ok(ApiResponse.success("Flash sale started", inventoryService.startFlashSale(skuCode)));
+    }
+
+    @DeleteMapping("/{skuCode}/flash-sale")
+    @Operation(summary = "End flash-sale mode for a SKU", description = "Writes the final counts back to the database")
+    public ResponseEntity<ApiResponse<InventoryResponse>> endFlashSale(@PathVariable String skuCode) {
+        return ResponseEntity.ok(ApiResponse.success("Flash sale ended", inventoryService.endFlashSale(skuCode)));
+    }
+
     @GetMapping("/check/{skuCode}")
     @Operation(summary = "Check if product is in stock")
     public ResponseEntity<ApiResponse<Boolean>> isInStock(
@@ -61,7 +136,26 @@ public class InventoryController {
 
     @GetMapping("/alerts/low-stock")
     @Operation(summary = "Get low stock alerts")
-    public ResponseEntity<ApiResponse<List<InventoryResponse>>> getLowStockAlerts() {
-        return ResponseEntity.ok(ApiResponse.success(inventoryService.getLowStockAlerts()));
+    public ResponseEntity<ApiResponse<List<InventoryResponse>>> getLowStockAlerts(WebRequest webRequest) {
+        List<InventoryResponse> response = inventoryService.getLowStockAlerts();
+        return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
+    }
+
+    @GetMapping(path = "/alerts/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream low stock threshold crossings",
+            description = "Sends a snapshot event with the current low-stock SKUs, then a crossing event whenever a SKU enters or leaves the set")
+    public SseEmitter streamLowStockAlerts() {
+        return lowStockMonitor.subscribe();
+    }
+
+    // Stock counts are part of the version: two updates can share an updatedAt tick. That makes
+    // the version most of the (narrow) row, so it is read with the row rather than ahead of it.
+    private static String etag(InventoryResponse inventory) {
+        return ETags.strong(inventory.getId(), inventory.getUpdatedAt(),
+                inventory.getQuantity(), inventory.getReservedQuantity(), inventory.isLowStock());
+    }
+
+    private static String etag(List<InventoryResponse> inventories) {
+        return ETags.weak(inventories.stream().map(InventoryController::etag).toList());
     }
 }
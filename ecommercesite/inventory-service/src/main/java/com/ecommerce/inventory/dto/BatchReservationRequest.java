@@ -0,0 +1,43 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<StockRequest> items;
+
+    /**
+     * When set, the units are held for this order and expire unless released or confirmed, and
+     * a repeated request for the same order reserves nothing more.
+     */
+    @Size(max = 50, message = "Order number must be at most 50 characters")
+    private String orderNumber;
+
+    /**
+     * How long the order's holds last, for callers that cancel their own unconfirmed orders and
+     * want the expiry only as a backstop; defaults to {@code inventory.reservation.hold-ttl}.
+     */
+    @Positive(message = "Hold seconds must be positive")
+    private Long holdSeconds;
+
+    public BatchReservationRequest(List<StockRequest> items) {
+        this(items, null, null);
+    }
+
+    public BatchReservationRequest(List<StockRequest> items, String orderNumber) {
+        this(items, orderNumber, null);
+    }
+}
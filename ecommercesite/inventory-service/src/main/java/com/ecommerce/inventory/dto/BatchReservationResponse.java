@@ -0,0 +1,29 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReservationResponse {
+
+    private boolean reserved;
+    private List<InventoryResponse> items;
+    private List<Shortfall> shortfalls;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Shortfall {
+        private String skuCode;
+        private Integer requested;
+        private Integer available;
+    }
+}
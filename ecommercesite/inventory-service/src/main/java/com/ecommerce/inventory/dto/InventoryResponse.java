@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,4 +19,5 @@ public class InventoryResponse {
     private Integer reservedQuantity;
     private Integer availableQuantity;
     private boolean lowStock;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,21 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** A SKU crossing its low-stock threshold: {@code lowStock} is true when it fell to or below it. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockEvent {
+
+    private String skuCode;
+    private int availableQuantity;
+    private boolean lowStock;
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Just enough stock state to render a listing, keyed by SKU code in lookup responses. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+
+    private int available;
+    private boolean lowStock;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLookupRequest {
+
+    @NotEmpty(message = "At least one SKU code is required")
+    @Size(max = 10_000, message = "At most 10000 SKU codes can be looked up at once")
+    private List<String> skuCodes;
+}
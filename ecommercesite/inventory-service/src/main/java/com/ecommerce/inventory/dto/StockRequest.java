@@ -3,6 +3,7 @@ package com.ecommerce.inventory.dto;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,4 +19,12 @@ public class StockRequest {
     @NotNull(message = "Quantity is required")
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
+
+    /** When set, the units are held for this order and expire unless released or confirmed. */
+    @Size(max = 50, message = "Order number must be at most 50 characters")
+    private String orderNumber;
+
+    public StockRequest(String skuCode, Integer quantity) {
+        this(skuCode, quantity, null);
+    }
 }
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inventory", indexes = {
-        @Index(name = "idx_inventory_sku", columnList = "skuCode", unique = true)
+        @Index(name = "idx_inventory_sku", columnList = "skuCode", unique = true),
+        @Index(name = "idx_inventory_low_stock", columnList = "lowStock, skuCode")
 })
 @Data
 @Builder
@@ -38,6 +39,16 @@ public class Inventory {
     @Builder.Default
     private Integer lowStockThreshold = 10;
 
+    /**
+     * Stored copy of {@link #isLowStock()} so the low-stock set can be read from an index. The
+     * stock UPDATEs in {@code InventoryRepository} are followed by {@code syncLowStock}, which
+     * keeps it in step with the counts. Rows from before the column start out false and are
+     * corrected at startup.
+     */
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private boolean lowStock = false;
+
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
@@ -48,4 +59,10 @@ public class Inventory {
     public boolean isLowStock() {
         return getAvailableQuantity() <= lowStockThreshold;
     }
+
+    @PrePersist
+    @PreUpdate
+    void syncLowStock() {
+        lowStock = isLowStock();
+    }
 }
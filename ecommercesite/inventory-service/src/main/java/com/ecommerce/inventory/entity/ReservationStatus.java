@@ -0,0 +1,8 @@
+package com.ecommerce.inventory.entity;
+
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.inventory.repository;
 
 import com.ecommerce.inventory.entity.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +18,83 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
     Optional<Inventory> findBySkuCode(String skuCode);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.skuCode = :skuCode")
+    Optional<Inventory> findBySkuCodeForUpdate(@Param("skuCode") String skuCode);
+
+    List<Inventory> findBySkuCodeIn(Collection<String> skuCodes);
+
     boolean existsBySkuCode(String skuCode);
 
-    @Query("SELECT i FROM Inventory i WHERE (i.quantity - i.reservedQuantity) <= i.lowStockThreshold")
+    /** The columns a stock lookup needs, read without loading entities. */
+    interface StockLevelView {
+        String getSkuCode();
+        int getAvailable();
+        int getLowStockThreshold();
+    }
+
+    @Query("SELECT i.skuCode AS skuCode, i.quantity - i.reservedQuantity AS available, "
+            + "i.lowStockThreshold AS lowStockThreshold FROM Inventory i WHERE i.skuCode IN :skuCodes")
+    List<StockLevelView> findStockLevels(@Param("skuCodes") Collection<String> skuCodes);
+
+    @Query("SELECT i FROM Inventory i WHERE i.lowStock = true")
     List<Inventory> findLowStockItems();
+
+    // Stock mutations are single conditional UPDATEs: the WHERE clause is the availability
+    // check, so there is no read-modify-write window. A return value of 0 means the SKU does
+    // not exist or the condition did not hold. Those that change available stock leave the
+    // low-stock flag to syncLowStock, run next in the same transaction.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :quantity, i.updatedAt = LOCAL DATETIME "
+            + "WHERE i.skuCode = :skuCode")
+    int addQuantity(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, i.updatedAt = LOCAL DATETIME "
+            + "WHERE i.skuCode = :skuCode AND i.quantity - i.reservedQuantity >= :quantity")
+    int reserve(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET "
+            + "i.reservedQuantity = CASE WHEN i.reservedQuantity > :quantity "
+            + "THEN i.reservedQuantity - :quantity ELSE 0 END, i.updatedAt = LOCAL DATETIME "
+            + "WHERE i.skuCode = :skuCode")
+    int release(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+    /**
+     * Brings the SKU's low-stock flag in step with its counts. Returns 1 only when the flag
+     * flipped; after a stock UPDATE in the same transaction the row is locked, so exactly one
+     * transaction sees each flip.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.lowStock = CASE WHEN i.quantity - i.reservedQuantity <= i.lowStockThreshold "
+            + "THEN true ELSE false END "
+            + "WHERE i.skuCode = :skuCode AND ("
+            + "(i.lowStock = false AND i.quantity - i.reservedQuantity <= i.lowStockThreshold) "
+            + "OR (i.lowStock = true AND i.quantity - i.reservedQuantity > i.lowStockThreshold))")
+    int syncLowStock(@Param("skuCode") String skuCode);
+
+    /** {@link #syncLowStock} for every row; returns how many flags were wrong. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.lowStock = CASE WHEN i.quantity - i.reservedQuantity <= i.lowStockThreshold "
+            + "THEN true ELSE false END "
+            + "WHERE (i.lowStock = false AND i.quantity - i.reservedQuantity <= i.lowStockThreshold) "
+            + "OR (i.lowStock = true AND i.quantity - i.reservedQuantity > i.lowStockThreshold)")
+    int syncAllLowStock();
+
+    // Available quantity is unchanged, so the low-stock flag is too
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, "
+            + "i.reservedQuantity = i.reservedQuantity - :quantity, i.updatedAt = LOCAL DATETIME "
+            + "WHERE i.skuCode = :skuCode AND i.reservedQuantity >= :quantity")
+    int deductReserved(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+    // Write-back of flash-sale counts, which the in-memory ledger owns while the sale runs
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET "
+            + "i.lowStock = CASE WHEN :quantity - :reserved <= i.lowStockThreshold THEN true ELSE false END, "
+            + "i.quantity = :quantity, i.reservedQuantity = :reserved, "
+            + "i.updatedAt = LOCAL DATETIME WHERE i.skuCode = :skuCode")
+    int setCounts(@Param("skuCode") String skuCode, @Param("quantity") int quantity, @Param("reserved") int reserved);
 }
@@ -0,0 +1,38 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByOrderNumber(String orderNumber);
+
+    Optional<StockReservation> findByOrderNumberAndSkuCode(String orderNumber, String skuCode);
+
+    // Served by idx_reservation_expiry
+    List<StockReservation> findByStatusAndExpiresAtBeforeOrderByExpiresAt(
+            ReservationStatus status, LocalDateTime now, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.id = :id")
+    Optional<StockReservation> findByIdForUpdate(@Param("id") Long id);
+
+    /** Moves a hold out of HELD; 0 means another caller settled it first. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :status, r.updatedAt = LOCAL DATETIME "
+            + "WHERE r.id = :id AND r.status = com.ecommerce.inventory.entity.ReservationStatus.HELD")
+    int settle(@Param("id") Long id, @Param("status") ReservationStatus status);
+}
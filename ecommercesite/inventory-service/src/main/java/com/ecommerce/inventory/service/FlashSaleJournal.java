@@ -0,0 +1,199 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.entity.ReservationStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of flash-sale counts, split into numbered segments. Every entry is the SKU's
+ * absolute state rather than a delta, so replaying keeps the last entry per SKU, and an entry
+ * written under the lock from the SKU's current counts supersedes any written before it
+ * regardless of the order the mutations' threads got here.
+ *
+ * <p>A hold settled through the ledger is journaled in the same entry as the counts that
+ * include it, and marked done once the database records it; replay returns the holds not
+ * marked done so they can be settled without applying their units again.
+ *
+ * <p>Each segment starts with a checkpoint of every open SKU and every hold not yet done, so
+ * once the database holds those counts all earlier segments can be deleted.
+ */
+final class FlashSaleJournal {
+
+    private static final byte STATE = 1;
+    private static final byte CLOSED = 2;
+    private static final byte SETTLED = 3;
+    private static final byte SETTLEMENT_DONE = 4;
+    private static final String PREFIX = "flash-sale-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final ByteBuffer entry = ByteBuffer.allocateDirect(1 + 2 + 4 * 50 + 8 + 8 + 1);
+    private volatile FileChannel segment;
+    private long segmentNumber;
+
+    /** The outcome a hold was settled with in the ledger, and its SKU. */
+    record Settlement(String skuCode, ReservationStatus outcome) {}
+
+    /** The last packed counts per SKU, and the ledger settlements not yet done in the database. */
+    record Replay(Map<String, Long> states, Map<Long, Settlement> settlements) {}
+
+    FlashSaleJournal(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        List<Path> existing = segments();
+        this.segmentNumber = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1));
+    }
+
+    /**
+     * Records the SKU's counts as read inside the journal lock, so the last entry for a SKU is
+     * never older than a mutation that completed before it was written.
+     */
+    synchronized void record(String skuCode, LongSupplier counts) {
+        write(STATE, skuCode, counts.getAsLong());
+    }
+
+    synchronized void recordClosed(String skuCode) {
+        write(CLOSED, skuCode, 0);
+    }
+
+    /** Records the SKU's counts together with the hold whose settlement they include. */
+    synchronized void recordSettled(Long holdId, Settlement settlement, LongSupplier counts) {
+        write(SETTLED, settlement.skuCode(), counts.getAsLong(), holdId, settlement.outcome());
+    }
+
+    synchronized void recordSettlementDone(Long holdId) {
+        write(SETTLEMENT_DONE, "", 0, holdId, null);
+    }
+
+    /**
+     * Starts a new segment beginning with a checkpoint of the given SKUs' counts and returns
+     * the segments before it, which may be deleted once those counts are in the database.
+     */
+    synchronized List<Path> rotate(Iterable<FlashSaleLedger.Slot> open, Map<Long, Settlement> pending) throws IOException {
+        List<Path> previous = segments();
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+        segment = FileChannel.open(path(++segmentNumber),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        for (FlashSaleLedger.Slot slot : open) {
+            long counts = slot.counts.get();
+            if (counts != FlashSaleLedger.CLOSED) {
+                write(STATE, slot.skuCode, counts);
+            }
+        }
+        pending.forEach((holdId, settlement) ->
+                write(SETTLED, settlement.skuCode(), FlashSaleLedger.CLOSED, holdId, settlement.outcome()));
+        return previous;
+    }
+
+    /**
+     * Forces appended entries to disk; until then they survive a process crash but not a power
+     * loss. Runs outside the lock so appends are not held up by the fsync.
+     */
+    void sync() throws IOException {
+        FileChannel current = segment;
+        if (current != null) {
+            try {
+                current.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated meanwhile; rotate forces the segment it closes
+            }
+        }
+    }
+
+    /**
+     * Replays every segment in order and returns the last packed counts per SKU, or
+     * {@link FlashSaleLedger#CLOSED} for SKUs whose flash sale ended, and the settlements not
+     * marked done. A torn entry at the end of a segment is ignored.
+     */
+    Replay replay() throws IOException {
+        Map<String, Long> states = new LinkedHashMap<>();
+        Map<Long, Settlement> settlements = new LinkedHashMap<>();
+        for (Path path : segments()) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            while (buffer.remaining() >= 3) {
+                byte type = buffer.get();
+                int length = buffer.getShort() & 0xffff;
+                boolean hold = type == SETTLED || type == SETTLEMENT_DONE;
+                if (buffer.remaining() < length + 8 + (hold ? 9 : 0)) {
+                    break;
+                }
+                byte[] sku = new byte[length];
+                buffer.get(sku);
+                String skuCode = new String(sku, StandardCharsets.UTF_8);
+                long counts = buffer.getLong();
+                if (hold) {
+                    long holdId = buffer.getLong();
+                    byte outcome = buffer.get();
+                    if (type == SETTLEMENT_DONE) {
+                        settlements.remove(holdId);
+                        continue;
+                    }
+                    settlements.put(holdId, new Settlement(skuCode, ReservationStatus.values()[outcome]));
+                    // Checkpointed settlements carry no counts of their own
+                    if (counts == FlashSaleLedger.CLOSED) {
+                        continue;
+                    }
+                }
+                states.put(skuCode, type == CLOSED ? FlashSaleLedger.CLOSED : counts);
+            }
+        }
+        return new Replay(states, settlements);
+    }
+
+    List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void write(byte type, String skuCode, long counts) {
+        write(type, skuCode, counts, null, null);
+    }
+
+    // Hold entries append the hold id and the ordinal of its outcome to the common layout
+    private void write(byte type, String skuCode, long counts, Long holdId, ReservationStatus outcome) {
+        byte[] sku = skuCode.getBytes(StandardCharsets.UTF_8);
+        entry.clear()
+                .put(type)
+                .putShort((short) sku.length)
+                .put(sku)
+                .putLong(counts);
+        if (holdId != null) {
+            entry.putLong(holdId).put((byte) (outcome != null ? outcome.ordinal() : 0));
+        }
+        entry.flip();
+        try {
+            while (entry.hasRemaining()) {
+                segment.write(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to flash-sale journal", e);
+        }
+    }
+
+    private Path path(long number) {
+        return directory.resolve(String.format("%s%019d%s", PREFIX, number, SUFFIX));
+    }
+
+    private static long number(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.entity.Inventory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock counts for SKUs in flash-sale mode. Each SKU's quantity and reserved quantity are
+ * packed into one {@link AtomicLong}, so every mutation is a single compare-and-set: threads
+ * reserving the same SKU never block each other and availability can never go negative.
+ */
+final class FlashSaleLedger {
+
+    enum Operation { ADD, RESERVE, RELEASE, DEDUCT }
+
+    // quantity is never negative, so this packed value cannot be a real state
+    static final long CLOSED = -1L;
+
+    static final class Slot {
+
+        final Long id;
+        final String skuCode;
+        final int lowStockThreshold;
+        final AtomicLong counts;
+        volatile LocalDateTime updatedAt;
+        // Last counts written to the database; guarded by the flushing service
+        long flushed;
+
+        private Slot(Inventory inventory) {
+            this.id = inventory.getId();
+            this.skuCode = inventory.getSkuCode();
+            this.lowStockThreshold = inventory.getLowStockThreshold();
+            this.counts = new AtomicLong(pack(inventory.getQuantity(), inventory.getReservedQuantity()));
+            this.updatedAt = inventory.getUpdatedAt();
+            this.flushed = counts.get();
+        }
+
+        /** A detached entity holding the current counts, or null once closed. */
+        Inventory toInventory() {
+            return toInventory(counts.get());
+        }
+
+        Inventory toInventory(long current) {
+            if (current == CLOSED) {
+                return null;
+            }
+            return Inventory.builder()
+                    .id(id)
+                    .skuCode(skuCode)
+                    .quantity(quantity(current))
+                    .reservedQuantity(reserved(current))
+                    .lowStockThreshold(lowStockThreshold)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    /** Starts tracking the SKU from the given counts, or returns the existing slot. */
+    Slot open(Inventory inventory) {
+        return slots.computeIfAbsent(inventory.getSkuCode(), sku -> new Slot(inventory));
+    }
+
+    Slot get(String skuCode) {
+        return slots.get(skuCode);
+    }
+
+    Collection<Slot> slots() {
+        return slots.values();
+    }
+
+    /**
+     * Counts before and after an operation, packed; {@code applied} is false when its condition
+     * did not hold, and then both are the same.
+     */
+    record Change(long previous, long counts, boolean applied) {}
+
+    /**
+     * Applies the operation with one compare-and-set, retrying on contention. Returns null when
+     * the slot has been closed.
+     */
+    Change apply(Slot slot, Operation operation, int amount) {
+        while (true) {
+            long current = slot.counts.get();
+            if (current == CLOSED) {
+                return null;
+            }
+            int quantity = quantity(current);
+            int reserved = reserved(current);
+            if ((operation == Operation.RESERVE && quantity - reserved < amount)
+                    || (operation == Operation.DEDUCT && reserved < amount)) {
+                return new Change(current, current, false);
+            }
+            long next = switch (operation) {
+                case ADD -> pack(quantity + amount, reserved);
+                case RESERVE -> pack(quantity, reserved + amount);
+                case RELEASE -> pack(quantity, Math.max(0, reserved - amount));
+                case DEDUCT -> pack(quantity - amount, reserved - amount);
+            };
+            if (slot.counts.compareAndSet(current, next)) {
+                return new Change(current, next, true);
+            }
+        }
+    }
+
+    /**
+     * Stops all further mutations if the counts are still {@code expected}; false when a
+     * mutation landed since they were read.
+     */
+    boolean close(Slot slot, long expected) {
+        return expected != CLOSED && slot.counts.compareAndSet(expected, CLOSED);
+    }
+
+    /** Undoes a {@link #close} whose write-back failed. */
+    void reopen(Slot slot, long counts) {
+        slot.counts.compareAndSet(CLOSED, counts);
+    }
+
+    void remove(Slot slot) {
+        slots.remove(slot.skuCode, slot);
+    }
+
+    static long pack(int quantity, int reserved) {
+        return ((long) quantity << 32) | (reserved & 0xffffffffL);
+    }
+
+    static int quantity(long counts) {
+        return (int) (counts >> 32);
+    }
+
+    static int reserved(long counts) {
+        return (int) counts;
+    }
+}
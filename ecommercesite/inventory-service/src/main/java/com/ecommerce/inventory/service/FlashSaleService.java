@@ -0,0 +1,309 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ResourceNotFoundException;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.entity.StockReservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flash-sale mode: a SKU's counts move from its database row into this node's
+ * {@link FlashSaleLedger}, so reservations no longer take a row lock or a round trip. Every
+ * change is appended to a {@link FlashSaleJournal} and the counts are written back to the row
+ * on a schedule. On startup the journal is replayed into the database and its SKUs reopened,
+ * and holds whose settlement reached the ledger but not the database are settled.
+ *
+ * <p>The ledger is local to this node, so requests for a SKU in flash-sale mode must all be
+ * routed to the node that opened it.
+ */
+@Service
+@Slf4j
+public class FlashSaleService {
+
+    /** A ledger operation's outcome; {@code inventory} is detached and holds the counts after it. */
+    public record Result(boolean applied, Inventory inventory) {}
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final FlashSaleLedger ledger = new FlashSaleLedger();
+    // Holds settled in the ledger whose settlement the database has not committed yet
+    private final Map<Long, FlashSaleJournal.Settlement> pendingSettlements = new ConcurrentHashMap<>();
+    private final FlashSaleJournal journal;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FlashSaleService(InventoryRepository inventoryRepository,
+                            StockReservationRepository reservationRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${inventory.flash-sale.journal-dir}") Path journalDirectory,
+                            ApplicationEventPublisher eventPublisher) throws IOException {
+        this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = new FlashSaleJournal(journalDirectory);
+        this.eventPublisher = eventPublisher;
+        if (journalDirectory.toAbsolutePath().startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath())) {
+            log.warn("Flash-sale journal is in the temp directory ({}); set INVENTORY_FLASH_SALE_JOURNAL_DIR "
+                    + "to a directory that survives reboots", journalDirectory);
+        }
+    }
+
+    @PostConstruct
+    public synchronized void recover() throws IOException {
+        FlashSaleJournal.Replay replay = journal.replay();
+        Map<String, Long> states = replay.states();
+        transactionTemplate.executeWithoutResult(status -> {
+            states.forEach((skuCode, counts) -> {
+                if (counts != FlashSaleLedger.CLOSED) {
+                    inventoryRepository.setCounts(skuCode, FlashSaleLedger.quantity(counts), FlashSaleLedger.reserved(counts));
+                }
+            });
+            // The counts above already include these holds' units; a hold settled since is skipped
+            replay.settlements().forEach((holdId, settlement) -> reservationRepository.settle(holdId, settlement.outcome()));
+        });
+        states.forEach((skuCode, counts) -> {
+            if (counts != FlashSaleLedger.CLOSED) {
+                inventoryRepository.findBySkuCode(skuCode).ifPresent(ledger::open);
+            }
+        });
+        deleteAll(journal.rotate(ledger.slots(), pendingSettlements));
+        if (!states.isEmpty()) {
+            log.info("Replayed flash-sale journal: {} SKUs written back, {} reopened",
+                    states.size(), ledger.slots().size());
+        }
+    }
+
+    /**
+     * Moves the SKU into flash-sale mode. The row is locked while its counts are copied, so a
+     * database mutation racing with this either lands before the copy or sees the SKU open
+     * and retries through the ledger.
+     */
+    public synchronized Inventory open(String skuCode) {
+        FlashSaleLedger.Slot existing = ledger.get(skuCode);
+        if (existing != null) {
+            return existing.toInventory();
+        }
+        return transactionTemplate.execute(status -> {
+            Inventory inventory = inventoryRepository.findBySkuCodeForUpdate(skuCode)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", skuCode));
+            FlashSaleLedger.Slot slot = ledger.open(inventory);
+            journal.record(skuCode, slot.counts::get);
+            log.info("SKU {} entered flash-sale mode (available: {})", skuCode, inventory.getAvailableQuantity());
+            return slot.toInventory();
+        });
+    }
+
+    /**
+     * Writes the SKU's final counts to its row and returns it to database-backed stock. The
+     * slot is closed only once the row holds its counts, inside the same transaction; if the
+     * write or the commit fails the slot is reopened with them and the sale carries on.
+     */
+    public synchronized Inventory close(String skuCode) {
+        FlashSaleLedger.Slot slot = ledger.get(skuCode);
+        if (slot == null || slot.counts.get() == FlashSaleLedger.CLOSED) {
+            throw new BadRequestException("SKU is not in flash-sale mode: " + skuCode);
+        }
+        long[] closed = {FlashSaleLedger.CLOSED};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long counts;
+                do {
+                    counts = slot.counts.get();
+                    inventoryRepository.setCounts(skuCode, FlashSaleLedger.quantity(counts), FlashSaleLedger.reserved(counts));
+                } while (!ledger.close(slot, counts));
+                closed[0] = counts;
+            });
+        } catch (RuntimeException e) {
+            if (closed[0] != FlashSaleLedger.CLOSED) {
+                ledger.reopen(slot, closed[0]);
+            }
+            throw e;
+        }
+        try {
+            journal.recordClosed(skuCode);
+        } finally {
+            // The row is authoritative from here on, even if the journal could not say so
+            ledger.remove(slot);
+        }
+        log.info("SKU {} left flash-sale mode", skuCode);
+        return inventoryRepository.findBySkuCode(skuCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", skuCode));
+    }
+
+    public boolean isOpen(String skuCode) {
+        return ledger.get(skuCode) != null;
+    }
+
+    /**
+     * Applies the operation in the ledger, or returns null when the SKU is not in flash-sale mode.
+     * A change that moves the SKU across its low-stock threshold is published straight away: the
+     * ledger has no transaction to wait for.
+     */
+    Result apply(String skuCode, FlashSaleLedger.Operation operation, int amount) {
+        FlashSaleLedger.Slot slot = ledger.get(skuCode);
+        if (slot == null) {
+            return null;
+        }
+        FlashSaleLedger.Change change = ledger.apply(slot, operation, amount);
+        if (change == null) {
+            // Closing: once it settles the SKU is either gone or back in the ledger
+            awaitRemoval(slot);
+            return apply(skuCode, operation, amount);
+        }
+        if (change.applied()) {
+            slot.updatedAt = LocalDateTime.now();
+            journal.record(skuCode, slot.counts::get);
+        }
+        return result(slot, change);
+    }
+
+    /**
+     * Releases or deducts a hold's units in the ledger, or returns null when the SKU is not in
+     * flash-sale mode. The change is journaled together with the hold, so until
+     * {@link #settled} says the database has recorded it, the hold's units are never moved
+     * twice: {@link #pendingSettlement} tells a retry it is already done, and after a crash
+     * {@link #recover()} settles the hold from the journal. Callers must hold the hold's row lock.
+     */
+    Result settle(StockReservation hold, ReservationStatus outcome) {
+        FlashSaleLedger.Slot slot = ledger.get(hold.getSkuCode());
+        if (slot == null) {
+            return null;
+        }
+        FlashSaleLedger.Operation operation = outcome == ReservationStatus.CONFIRMED
+                ? FlashSaleLedger.Operation.DEDUCT : FlashSaleLedger.Operation.RELEASE;
+        FlashSaleLedger.Change change = ledger.apply(slot, operation, hold.getQuantity());
+        if (change == null) {
+            awaitRemoval(slot);
+            return settle(hold, outcome);
+        }
+        if (change.applied()) {
+            slot.updatedAt = LocalDateTime.now();
+            FlashSaleJournal.Settlement settlement = new FlashSaleJournal.Settlement(hold.getSkuCode(), outcome);
+            pendingSettlements.put(hold.getId(), settlement);
+            journal.recordSettled(hold.getId(), settlement, slot.counts::get);
+        }
+        return result(slot, change);
+    }
+
+    /** The outcome the hold was settled with in the ledger, if the database has not recorded it yet. */
+    Optional<ReservationStatus> pendingSettlement(Long holdId) {
+        return Optional.ofNullable(pendingSettlements.get(holdId)).map(FlashSaleJournal.Settlement::outcome);
+    }
+
+    /** Called once the database has committed these holds' settlements. */
+    void settled(Collection<Long> holdIds) {
+        for (Long holdId : holdIds) {
+            if (pendingSettlements.remove(holdId) != null) {
+                journal.recordSettlementDone(holdId);
+            }
+        }
+    }
+
+    // A change that moves the SKU across its low-stock threshold is published straight away
+    private Result result(FlashSaleLedger.Slot slot, FlashSaleLedger.Change change) {
+        Inventory inventory = slot.toInventory(change.counts());
+        if (change.applied() && slot.toInventory(change.previous()).isLowStock() != inventory.isLowStock()) {
+            eventPublisher.publishEvent(LowStockMonitor.crossing(inventory));
+        }
+        return new Result(change.applied(), inventory);
+    }
+
+    /** The SKU's ledger counts, or empty when its row is authoritative. */
+    public Optional<Inventory> find(String skuCode) {
+        FlashSaleLedger.Slot slot = ledger.get(skuCode);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        Inventory inventory = slot.toInventory();
+        if (inventory == null) {
+            awaitRemoval(slot);
+            return find(skuCode);
+        }
+        return Optional.of(inventory);
+    }
+
+    public List<Inventory> findAll() {
+        return ledger.slots().stream()
+                .map(FlashSaleLedger.Slot::toInventory)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Writes changed counts to their rows in one transaction. The journal is rotated first, so
+     * the segments before the new checkpoint can be deleted once the write commits.
+     */
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.flush-interval-ms:1000}")
+    public synchronized void flush() throws IOException {
+        if (ledger.slots().stream().noneMatch(slot -> slot.counts.get() != slot.flushed)) {
+            return;
+        }
+        List<Path> previous = journal.rotate(ledger.slots(), pendingSettlements);
+        Map<FlashSaleLedger.Slot, Long> changed = new HashMap<>();
+        for (FlashSaleLedger.Slot slot : ledger.slots()) {
+            long counts = slot.counts.get();
+            if (counts != FlashSaleLedger.CLOSED && counts != slot.flushed) {
+                changed.put(slot, counts);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> changed.forEach((slot, counts) -> inventoryRepository
+                .setCounts(slot.skuCode, FlashSaleLedger.quantity(counts), FlashSaleLedger.reserved(counts))));
+        changed.forEach((slot, counts) -> slot.flushed = counts);
+        deleteAll(previous);
+        log.debug("Flushed flash-sale counts for {} SKUs", changed.size());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.sync-interval-ms:100}")
+    public void sync() throws IOException {
+        journal.sync();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.sync();
+    }
+
+    // close() holds the slot closed only while it commits the final counts, then removes or reopens it
+    private void awaitRemoval(FlashSaleLedger.Slot slot) {
+        long deadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+        while (ledger.get(slot.skuCode) == slot && slot.counts.get() == FlashSaleLedger.CLOSED) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Timed out waiting for flash sale on SKU " + slot.skuCode + " to close");
+            }
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    private static void deleteAll(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            Files.deleteIfExists(segment);
+        }
+    }
+}
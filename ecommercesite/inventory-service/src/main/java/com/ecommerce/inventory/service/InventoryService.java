@@ -2,102 +2,628 @@ package com.ecommerce.inventory.service;
 
 import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
+import com.ecommerce.inventory.dto.BatchReservationRequest;
+import com.ecommerce.inventory.dto.BatchReservationResponse;
 import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.LowStockEvent;
+import com.ecommerce.inventory.dto.StockLevel;
 import com.ecommerce.inventory.dto.StockRequest;
 import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.entity.StockReservation;
 import com.ecommerce.inventory.repository.InventoryRepository;
-import lombok.RequiredArgsConstructor;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Stock for SKUs in flash-sale mode lives in {@link FlashSaleService}'s ledger and every
+ * mutation checks there first; everything else is a conditional UPDATE on the row. Mutations
+ * use a {@link TransactionTemplate} rather than {@code @Transactional} so the ledger path never
+ * opens a transaction.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class InventoryService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
     private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository reservationRepository;
+    private final FlashSaleService flashSaleService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration holdTtl;
+    private final int sweepBatchSize;
+
+    public InventoryService(InventoryRepository inventoryRepository,
+                            StockReservationRepository reservationRepository,
+                            FlashSaleService flashSaleService,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${inventory.reservation.hold-ttl:15m}") Duration holdTtl,
+                            @Value("${inventory.reservation.sweep-batch-size:200}") int sweepBatchSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.flashSaleService = flashSaleService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.holdTtl = holdTtl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Corrects stored low-stock flags that disagree with their counts, as on rows from before
+     * the column existed, which start out false. Changes nothing once every flag is in step.
+     */
+    @PostConstruct
+    public void syncLowStockFlags() {
+        Integer corrected = transactionTemplate.execute(status -> inventoryRepository.syncAllLowStock());
+        if (corrected != null && corrected > 0) {
+            log.info("Corrected the low-stock flag on {} inventory rows", corrected);
+        }
+    }
 
     public InventoryResponse getStock(String skuCode) {
-        Inventory inventory = inventoryRepository.findBySkuCode(skuCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", skuCode));
-        return mapToResponse(inventory);
+        return mapToResponse(findInventory(skuCode));
     }
 
-    @Transactional
-    public InventoryResponse addStock(StockRequest request) {
-        Inventory inventory = inventoryRepository.findBySkuCode(request.getSkuCode())
-                .orElse(Inventory.builder()
-                        .skuCode(request.getSkuCode())
-                        .quantity(0)
-                        .reservedQuantity(0)
-                        .build());
+    public List<InventoryResponse> getStockBySkuCodes(List<String> skuCodes) {
+        if (skuCodes.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " SKU codes can be requested at once");
+        }
+        return inventoryRepository.findBySkuCodeIn(skuCodes).stream()
+                .map(inventory -> flashSaleService.find(inventory.getSkuCode()).orElse(inventory))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Availability and low-stock flags for many SKUs, in request order. The SKUs are read in
+     * chunks of {@value #LOOKUP_CHUNK_SIZE} so each IN list stays small; unknown SKUs are omitted.
+     */
+    public Map<String, StockLevel> lookupStock(List<String> skuCodes) {
+        List<String> distinct = skuCodes.stream().distinct().toList();
+        Map<String, StockLevel> found = new HashMap<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinct.size()));
+            inventoryRepository.findStockLevels(chunk).forEach(level -> found.put(level.getSkuCode(),
+                    new StockLevel(level.getAvailable(), level.getAvailable() <= level.getLowStockThreshold())));
+        }
+        flashSaleService.findAll().forEach(inventory -> found.computeIfPresent(inventory.getSkuCode(),
+                (skuCode, level) -> new StockLevel(inventory.getAvailableQuantity(), inventory.isLowStock())));
+
+        Map<String, StockLevel> levels = new LinkedHashMap<>(found.size() * 2);
+        distinct.forEach(skuCode -> {
+            StockLevel level = found.get(skuCode);
+            if (level != null) {
+                levels.put(skuCode, level);
+            }
+        });
+        return levels;
+    }
 
-        inventory.setQuantity(inventory.getQuantity() + request.getQuantity());
-        Inventory saved = inventoryRepository.save(inventory);
-        log.info("Stock added for SKU {}: +{} (total: {})", request.getSkuCode(), request.getQuantity(), saved.getQuantity());
-        return mapToResponse(saved);
+    /**
+     * Adds to the SKU's quantity with a conditional UPDATE, inserting the row when there is none.
+     * Two requests inserting the same new SKU race on its unique key; the loser retries in a
+     * new transaction, where the UPDATE finds the winner's row, so neither addition is lost.
+     */
+    public InventoryResponse addStock(StockRequest request) {
+        boolean reread = false;
+        while (true) {
+            FlashSaleService.Result flash = flashSaleService.apply(
+                    request.getSkuCode(), FlashSaleLedger.Operation.ADD, request.getQuantity());
+            Inventory saved;
+            try {
+                saved = flash != null ? flash.inventory() : inDatabase(request.getSkuCode(), () -> {
+                    if (inventoryRepository.addQuantity(request.getSkuCode(), request.getQuantity()) == 0) {
+                        Inventory created = inventoryRepository.save(Inventory.builder()
+                                .skuCode(request.getSkuCode())
+                                .quantity(request.getQuantity())
+                                .reservedQuantity(0)
+                                .build());
+                        if (created.isLowStock()) {
+                            publishAfterCommit(LowStockMonitor.crossing(created));
+                        }
+                    } else {
+                        syncLowStock(request.getSkuCode());
+                    }
+                    return findInventory(request.getSkuCode());
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Only a concurrent insert of the same SKU is retried, and only once
+                if (reread || inventoryRepository.findBySkuCode(request.getSkuCode()).isEmpty()) {
+                    throw e;
+                }
+                log.info("Concurrent insert of SKU {}, retrying as an update", request.getSkuCode());
+                reread = true;
+                continue;
+            }
+            if (saved != null) {
+                log.info("Stock added for SKU {}: +{} (total: {})", request.getSkuCode(), request.getQuantity(), saved.getQuantity());
+                return mapToResponse(saved);
+            }
+        }
     }
 
-    @Transactional
     public InventoryResponse reserveStock(StockRequest request) {
-        Inventory inventory = inventoryRepository.findBySkuCode(request.getSkuCode())
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", request.getSkuCode()));
+        if (request.getOrderNumber() != null) {
+            BatchReservationResponse response = reserveBatch(
+                    new BatchReservationRequest(List.of(request), request.getOrderNumber()));
+            if (!response.isReserved()) {
+                throw insufficientStock(request, response.getShortfalls().get(0).getAvailable());
+            }
+            return response.getItems().get(0);
+        }
+        while (true) {
+            FlashSaleService.Result flash = flashSaleService.apply(
+                    request.getSkuCode(), FlashSaleLedger.Operation.RESERVE, request.getQuantity());
+            if (flash != null && !flash.applied()) {
+                throw insufficientStock(request, flash.inventory().getAvailableQuantity());
+            }
+            Inventory saved = flash != null ? flash.inventory() : inDatabase(request.getSkuCode(), () -> {
+                if (inventoryRepository.reserve(request.getSkuCode(), request.getQuantity()) == 0) {
+                    throw insufficientStock(request, findInventory(request.getSkuCode()).getAvailableQuantity());
+                }
+                syncLowStock(request.getSkuCode());
+                return findInventory(request.getSkuCode());
+            });
+            if (saved != null) {
+                log.info("Stock reserved for SKU {}: {} units", request.getSkuCode(), request.getQuantity());
+                return mapToResponse(saved);
+            }
+        }
+    }
+
+    /**
+     * Reserves every item of an order in one transaction. Quantities for repeated SKUs are
+     * merged and rows are updated in SKU order so concurrent batches lock in the same order.
+     * If any SKU is short the whole transaction is rolled back and every shortfall is reported;
+     * reservations taken in the flash-sale ledger are released on rollback.
+     *
+     * <p>With an order number, each SKU's units become a hold that expires after the request's
+     * {@code holdSeconds}, or {@code inventory.reservation.hold-ttl} without it. SKUs the order
+     * already holds are skipped, so a retried request reserves nothing twice.
+     */
+    public BatchReservationResponse reserveBatch(BatchReservationRequest request) {
+        Map<String, Integer> requested = new TreeMap<>();
+        request.getItems().forEach(item -> requested.merge(item.getSkuCode(), item.getQuantity(), Integer::sum));
+        Duration holdFor = request.getHoldSeconds() != null ? Duration.ofSeconds(request.getHoldSeconds()) : holdTtl;
+
+        boolean reread = false;
+        while (true) {
+            BatchReservationResponse response;
+            try {
+                response = transactionTemplate.execute(status ->
+                        reserveBatch(requested, request.getOrderNumber(), holdFor, status));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent request for the same order may have inserted its holds first: one
+                // re-read sees them. Any other violation, or the same one again, is a real error.
+                if (request.getOrderNumber() == null || reread) {
+                    throw e;
+                }
+                log.info("Concurrent reservation for order {}, retrying", request.getOrderNumber());
+                reread = true;
+                continue;
+            }
+            if (response != null) {
+                return response;
+            }
+        }
+    }
+
+    /** One attempt at a batch reservation; null when a SKU entered flash-sale mode meanwhile. */
+    private BatchReservationResponse reserveBatch(Map<String, Integer> requested, String orderNumber,
+                                                  Duration holdFor, TransactionStatus status) {
+        Map<String, StockReservation> holds = orderNumber == null ? Map.of()
+                : reservationRepository.findByOrderNumber(orderNumber).stream()
+                .collect(Collectors.toMap(StockReservation::getSkuCode, hold -> hold));
+        Map<String, Integer> quantities = new TreeMap<>(requested);
+        quantities.keySet().removeIf(skuCode -> holds.containsKey(skuCode)
+                && holds.get(skuCode).getStatus() != ReservationStatus.RELEASED
+                && holds.get(skuCode).getStatus() != ReservationStatus.EXPIRED);
+        if (quantities.size() < requested.size()) {
+            log.info("Order {} already holds stock for {} of {} SKUs",
+                    orderNumber, requested.size() - quantities.size(), requested.size());
+        }
+
+        Map<String, Integer> flashReserved = new TreeMap<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completion) {
+                if (completion != STATUS_COMMITTED) {
+                    flashReserved.forEach((skuCode, quantity) ->
+                            flashSaleService.apply(skuCode, FlashSaleLedger.Operation.RELEASE, quantity));
+                }
+            }
+        });
+
+        List<String> databaseReserved = new ArrayList<>();
+        List<BatchReservationResponse.Shortfall> shortfalls = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            // Once the batch has failed, only check availability so the report is complete
+            boolean reserved = false;
+            if (shortfalls.isEmpty()) {
+                FlashSaleService.Result flash = flashSaleService.apply(
+                        entry.getKey(), FlashSaleLedger.Operation.RESERVE, entry.getValue());
+                if (flash != null) {
+                    reserved = flash.applied();
+                    if (reserved) {
+                        flashReserved.put(entry.getKey(), entry.getValue());
+                    }
+                } else if (inventoryRepository.reserve(entry.getKey(), entry.getValue()) > 0) {
+                    reserved = true;
+                    databaseReserved.add(entry.getKey());
+                    syncLowStock(entry.getKey());
+                }
+            }
+            if (!reserved) {
+                int available = flashSaleService.find(entry.getKey())
+                        .or(() -> inventoryRepository.findBySkuCode(entry.getKey()))
+                        .map(Inventory::getAvailableQuantity)
+                        .orElse(0);
+                if (!shortfalls.isEmpty() && available >= entry.getValue()) {
+                    continue;
+                }
+                shortfalls.add(BatchReservationResponse.Shortfall.builder()
+                        .skuCode(entry.getKey())
+                        .requested(entry.getValue())
+                        .available(available)
+                        .build());
+            }
+        }
 
-        if (inventory.getAvailableQuantity() < request.getQuantity()) {
-            throw new BadRequestException("Insufficient stock for SKU: " + request.getSkuCode()
-                    + ". Available: " + inventory.getAvailableQuantity()
-                    + ", Requested: " + request.getQuantity());
+        if (databaseReserved.stream().anyMatch(flashSaleService::isOpen)) {
+            status.setRollbackOnly();
+            return null;
+        }
+        if (!shortfalls.isEmpty()) {
+            status.setRollbackOnly();
+            log.info("Batch reservation rejected: {} of {} SKUs short", shortfalls.size(), quantities.size());
+            return BatchReservationResponse.builder()
+                    .reserved(false)
+                    .shortfalls(shortfalls)
+                    .build();
         }
 
-        inventory.setReservedQuantity(inventory.getReservedQuantity() + request.getQuantity());
-        Inventory saved = inventoryRepository.save(inventory);
+        if (orderNumber != null) {
+            LocalDateTime expiresAt = LocalDateTime.now().plus(holdFor);
+            quantities.forEach((skuCode, quantity) -> {
+                StockReservation hold = holds.getOrDefault(skuCode, StockReservation.builder()
+                        .orderNumber(orderNumber)
+                        .skuCode(skuCode)
+                        .build());
+                hold.setQuantity(quantity);
+                hold.setStatus(ReservationStatus.HELD);
+                hold.setExpiresAt(expiresAt);
+                reservationRepository.save(hold);
+            });
+        }
 
-        log.info("Stock reserved for SKU {}: {} units", request.getSkuCode(), request.getQuantity());
-        return mapToResponse(saved);
+        log.info("Batch reservation succeeded for {} SKUs", quantities.size());
+        return BatchReservationResponse.builder()
+                .reserved(true)
+                .items(inventoryRepository.findBySkuCodeIn(requested.keySet()).stream()
+                        .map(inventory -> flashSaleService.find(inventory.getSkuCode()).orElse(inventory))
+                        .map(this::mapToResponse)
+                        .collect(Collectors.toList()))
+                .shortfalls(List.of())
+                .build();
     }
 
-    @Transactional
+    /**
+     * Releases the order's hold on the SKU when an order number is given, which does nothing
+     * if the hold was already settled; otherwise releases the requested quantity.
+     */
     public InventoryResponse releaseStock(StockRequest request) {
-        Inventory inventory = inventoryRepository.findBySkuCode(request.getSkuCode())
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", request.getSkuCode()));
-
-        int newReserved = Math.max(0, inventory.getReservedQuantity() - request.getQuantity());
-        inventory.setReservedQuantity(newReserved);
-        Inventory saved = inventoryRepository.save(inventory);
+        Optional<StockReservation> hold = findHold(request);
+        if (hold.isPresent()) {
+            settleHolds(List.of(hold.get()), ReservationStatus.RELEASED);
+            return getStock(request.getSkuCode());
+        }
+        return releaseUnits(request);
+    }
 
-        log.info("Stock released for SKU {}: {} units", request.getSkuCode(), request.getQuantity());
-        return mapToResponse(saved);
+    private InventoryResponse releaseUnits(StockRequest request) {
+        while (true) {
+            FlashSaleService.Result flash = flashSaleService.apply(
+                    request.getSkuCode(), FlashSaleLedger.Operation.RELEASE, request.getQuantity());
+            Inventory saved = flash != null ? flash.inventory() : inDatabase(request.getSkuCode(), () -> {
+                if (inventoryRepository.release(request.getSkuCode(), request.getQuantity()) == 0) {
+                    throw new ResourceNotFoundException("Inventory", "skuCode", request.getSkuCode());
+                }
+                syncLowStock(request.getSkuCode());
+                return findInventory(request.getSkuCode());
+            });
+            if (saved != null) {
+                log.info("Stock released for SKU {}: {} units", request.getSkuCode(), request.getQuantity());
+                return mapToResponse(saved);
+            }
+        }
     }
 
-    @Transactional
+    /**
+     * Converts the order's hold on the SKU into a deduction when an order number is given,
+     * which does nothing if it was already confirmed; otherwise deducts the requested quantity
+     * from reserved stock.
+     */
     public InventoryResponse confirmStockDeduction(StockRequest request) {
-        Inventory inventory = inventoryRepository.findBySkuCode(request.getSkuCode())
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", request.getSkuCode()));
+        Optional<StockReservation> hold = findHold(request);
+        if (hold.isPresent()) {
+            settleHolds(List.of(hold.get()), ReservationStatus.CONFIRMED);
+            return getStock(request.getSkuCode());
+        }
+        return deductUnits(request);
+    }
+
+    private InventoryResponse deductUnits(StockRequest request) {
+        while (true) {
+            FlashSaleService.Result flash = flashSaleService.apply(
+                    request.getSkuCode(), FlashSaleLedger.Operation.DEDUCT, request.getQuantity());
+            if (flash != null && !flash.applied()) {
+                throw overDeduction(request, flash.inventory());
+            }
+            Inventory saved = flash != null ? flash.inventory() : inDatabase(request.getSkuCode(), () -> {
+                if (inventoryRepository.deductReserved(request.getSkuCode(), request.getQuantity()) == 0) {
+                    throw overDeduction(request, findInventory(request.getSkuCode()));
+                }
+                return findInventory(request.getSkuCode());
+            });
+            if (saved != null) {
+                log.info("Stock deducted for SKU {}: {} units (remaining: {})", request.getSkuCode(), request.getQuantity(), saved.getQuantity());
+                return mapToResponse(saved);
+            }
+        }
+    }
+
+    /**
+     * Releases every hold the order still has, in one transaction. Holds already settled are
+     * skipped, so repeating the call is safe; an order with no holds releases nothing.
+     */
+    public List<InventoryResponse> releaseOrder(String orderNumber) {
+        return settleOrder(orderNumber, ReservationStatus.RELEASED);
+    }
+
+    /**
+     * Converts every hold of the order into a deduction, in one transaction. All-or-nothing: if
+     * any hold was released or has expired nothing is deducted. Repeating the call is safe.
+     */
+    public List<InventoryResponse> confirmOrder(String orderNumber) {
+        return settleOrder(orderNumber, ReservationStatus.CONFIRMED);
+    }
+
+    private List<InventoryResponse> settleOrder(String orderNumber, ReservationStatus outcome) {
+        List<StockReservation> holds = new ArrayList<>(reservationRepository.findByOrderNumber(orderNumber));
+        if (holds.isEmpty() && outcome == ReservationStatus.CONFIRMED) {
+            throw new ResourceNotFoundException("Reservation", "orderNumber", orderNumber);
+        }
+        settleHolds(holds, outcome);
+
+        log.info("Order {} holds {}: {} SKUs", orderNumber, outcome.name().toLowerCase(), holds.size());
+        return inventoryRepository.findBySkuCodeIn(holds.stream().map(StockReservation::getSkuCode).toList()).stream()
+                .map(inventory -> flashSaleService.find(inventory.getSkuCode()).orElse(inventory))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Moves the HELD holds to {@code outcome} and releases or deducts their units in the same
+     * transaction, so a failure leaves them HELD. Holds already in another state are skipped,
+     * except that confirming one that was released or expired fails the whole call.
+     *
+     * <p>Flash-sale SKUs have no row to update, so each hold's ledger change is applied and
+     * journaled first, under the hold's row lock, and the hold is settled in the database after
+     * it. If that commit never happens the journal still has the hold: a retry finishes it
+     * with the outcome already applied and recovery after a crash settles it, so its units
+     * are neither leaked nor moved twice.
+     */
+    private void settleHolds(List<StockReservation> holds, ReservationStatus outcome) {
+        List<StockReservation> ordered = new ArrayList<>(holds);
+        ordered.sort(Comparator.comparing(StockReservation::getSkuCode));
+        FlashSaleLedger.Operation operation = outcome == ReservationStatus.CONFIRMED
+                ? FlashSaleLedger.Operation.DEDUCT : FlashSaleLedger.Operation.RELEASE;
+
+        List<Long> settledInLedger = null;
+        while (settledInLedger == null) {
+            settledInLedger = transactionTemplate.execute(status -> {
+                // Lock and check every hold first, so a rejected confirmation moves no units
+                Map<StockReservation, ReservationStatus> settling = new LinkedHashMap<>();
+                for (StockReservation candidate : ordered) {
+                    Optional<StockReservation> hold = candidate.getStatus() != ReservationStatus.HELD ? Optional.empty()
+                            : reservationRepository.findByIdForUpdate(candidate.getId())
+                                    .filter(locked -> locked.getStatus() == ReservationStatus.HELD);
+                    // Read under the row lock, so no other settler can apply or finish it meanwhile
+                    ReservationStatus current = hold.isPresent()
+                            ? flashSaleService.pendingSettlement(candidate.getId()).orElse(ReservationStatus.HELD)
+                            : reservationRepository.findById(candidate.getId())
+                                    .map(StockReservation::getStatus)
+                                    .orElse(candidate.getStatus());
+                    if (outcome == ReservationStatus.CONFIRMED
+                            && current != ReservationStatus.HELD && current != ReservationStatus.CONFIRMED) {
+                        throw new BadRequestException("Reservation for order " + candidate.getOrderNumber()
+                                + " on SKU " + candidate.getSkuCode() + " was already " + current.name().toLowerCase());
+                    }
+                    hold.ifPresent(locked -> settling.put(locked, current));
+                }
+
+                List<Long> ledger = new ArrayList<>();
+                List<String> database = new ArrayList<>();
+                settling.forEach((hold, current) -> {
+                    if (current != ReservationStatus.HELD) {
+                        // Its units moved in the ledger before an earlier commit failed
+                        reservationRepository.settle(hold.getId(), current);
+                        ledger.add(hold.getId());
+                        return;
+                    }
+                    FlashSaleService.Result flash = flashSaleService.settle(hold, outcome);
+                    if (flash != null) {
+                        if (!flash.applied()) {
+                            throw overDeduction(new StockRequest(hold.getSkuCode(), hold.getQuantity()), flash.inventory());
+                        }
+                        reservationRepository.settle(hold.getId(), outcome);
+                        ledger.add(hold.getId());
+                        return;
+                    }
+                    reservationRepository.settle(hold.getId(), outcome);
+                    int updated = operation == FlashSaleLedger.Operation.DEDUCT
+                            ? inventoryRepository.deductReserved(hold.getSkuCode(), hold.getQuantity())
+                            : inventoryRepository.release(hold.getSkuCode(), hold.getQuantity());
+                    if (updated == 0 && operation == FlashSaleLedger.Operation.DEDUCT) {
+                        throw overDeduction(new StockRequest(hold.getSkuCode(), hold.getQuantity()),
+                                findInventory(hold.getSkuCode()));
+                    }
+                    if (operation == FlashSaleLedger.Operation.RELEASE) {
+                        syncLowStock(hold.getSkuCode());
+                    }
+                    database.add(hold.getSkuCode());
+                });
+                if (database.stream().anyMatch(flashSaleService::isOpen)) {
+                    status.setRollbackOnly();
+                    return null;
+                }
+                return ledger;
+            });
+        }
+        flashSaleService.settled(settledInLedger);
+    }
+
+    /**
+     * Releases holds whose expiry has passed, oldest first, in batches of
+     * {@code inventory.reservation.sweep-batch-size}. Each hold is marked expired in the same
+     * transaction that releases its units, so concurrent sweepers never release one twice and a
+     * failed release leaves it HELD for the next sweep.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:30000}")
+    public void releaseExpiredReservations() {
+        int released = 0;
+        List<StockReservation> expired;
+        int releasedInBatch;
+        do {
+            expired = reservationRepository.findByStatusAndExpiresAtBeforeOrderByExpiresAt(
+                    ReservationStatus.HELD, LocalDateTime.now(), Limit.of(sweepBatchSize));
+            releasedInBatch = 0;
+            for (StockReservation hold : expired) {
+                try {
+                    settleHolds(List.of(hold), ReservationStatus.EXPIRED);
+                    releasedInBatch++;
+                } catch (RuntimeException e) {
+                    log.error("Failed to release expired hold {} for order {}", hold.getId(), hold.getOrderNumber(), e);
+                }
+            }
+            released += releasedInBatch;
+            // A batch that released nothing would only be fetched again
+        } while (expired.size() == sweepBatchSize && releasedInBatch > 0);
 
-        inventory.setQuantity(inventory.getQuantity() - request.getQuantity());
-        inventory.setReservedQuantity(inventory.getReservedQuantity() - request.getQuantity());
-        Inventory saved = inventoryRepository.save(inventory);
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
 
-        log.info("Stock deducted for SKU {}: {} units (remaining: {})", request.getSkuCode(), request.getQuantity(), saved.getQuantity());
-        return mapToResponse(saved);
+    public InventoryResponse startFlashSale(String skuCode) {
+        return mapToResponse(flashSaleService.open(skuCode));
+    }
+
+    public InventoryResponse endFlashSale(String skuCode) {
+        return mapToResponse(flashSaleService.close(skuCode));
     }
 
     public boolean isInStock(String skuCode, int quantity) {
-        return inventoryRepository.findBySkuCode(skuCode)
+        return flashSaleService.find(skuCode)
+                .or(() -> inventoryRepository.findBySkuCode(skuCode))
                 .map(inv -> inv.getAvailableQuantity() >= quantity)
                 .orElse(false);
     }
 
     public List<InventoryResponse> getLowStockAlerts() {
-        return inventoryRepository.findLowStockItems().stream()
+        return Stream.concat(
+                        inventoryRepository.findLowStockItems().stream()
+                                .filter(inventory -> !flashSaleService.isOpen(inventory.getSkuCode())),
+                        flashSaleService.findAll().stream().filter(Inventory::isLowStock))
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Runs a row mutation in a transaction. Returns null, rolled back, when the SKU entered
+     * flash-sale mode meanwhile: opening locks the row, so this sees it open before committing
+     * and the caller retries through the ledger.
+     */
+    private Inventory inDatabase(String skuCode, Supplier<Inventory> mutation) {
+        return transactionTemplate.execute(status -> {
+            Inventory result = mutation.get();
+            if (flashSaleService.isOpen(skuCode)) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return result;
+        });
+    }
+
+    // Follows each UPDATE that changes available stock, inside its transaction
+    private void syncLowStock(String skuCode) {
+        if (inventoryRepository.syncLowStock(skuCode) > 0) {
+            publishAfterCommit(LowStockMonitor.crossing(findInventory(skuCode)));
+        }
+    }
+
+    // A rolled-back flip never happened, so its crossing is dropped with it
+    private void publishAfterCommit(LowStockEvent crossing) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(crossing);
+            }
+        });
+    }
+
+    private Optional<StockReservation> findHold(StockRequest request) {
+        return request.getOrderNumber() == null ? Optional.empty()
+                : reservationRepository.findByOrderNumberAndSkuCode(request.getOrderNumber(), request.getSkuCode());
+    }
+
+    private static BadRequestException insufficientStock(StockRequest request, int available) {
+        return new BadRequestException("Insufficient stock for SKU: " + request.getSkuCode()
+                + ". Available: " + available
+                + ", Requested: " + request.getQuantity());
+    }
+
+    private static BadRequestException overDeduction(StockRequest request, Inventory inventory) {
+        return new BadRequestException("Cannot deduct more than is reserved for SKU: " + request.getSkuCode()
+                + ". Reserved: " + inventory.getReservedQuantity()
+                + ", Requested: " + request.getQuantity());
+    }
+
+    private Inventory findInventory(String skuCode) {
+        return flashSaleService.find(skuCode)
+                .or(() -> inventoryRepository.findBySkuCode(skuCode))
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory", "skuCode", skuCode));
+    }
+
     private InventoryResponse mapToResponse(Inventory inventory) {
         return InventoryResponse.builder()
                 .id(inventory.getId())
@@ -106,6 +632,7 @@ public class InventoryService {
                 .reservedQuantity(inventory.getReservedQuantity())
                 .availableQuantity(inventory.getAvailableQuantity())
                 .lowStock(inventory.isLowStock())
+                .updatedAt(inventory.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,121 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.dto.LowStockEvent;
+import com.ecommerce.inventory.entity.Inventory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes low-stock threshold crossings to server-sent event subscribers. Crossings are published
+ * by the stock updates that flip a SKU's flag (see {@link InventoryService} and
+ * {@link FlashSaleService}), so nothing is polled and every flip is reported, but a subscriber
+ * only sees crossings made on the node it is connected to.
+ *
+ * <p>Publishers only queue a crossing per subscriber; a single background thread writes them
+ * out, so a slow client never holds up a stock update or a flash-sale reservation. A subscriber
+ * whose queue fills up has fallen behind and its stream is completed.
+ */
+@Service
+@Slf4j
+public class LowStockMonitor {
+
+    private record Subscriber(SseEmitter emitter, BlockingQueue<LowStockEvent> pending) {}
+
+    private final InventoryService inventoryService;
+    private final Duration streamTimeout;
+    private final int subscriberBuffer;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // One sender; a drain already queued picks up later crossings too, so extra ones are discarded
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), runnable -> {
+                Thread thread = new Thread(runnable, "low-stock-sender");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public LowStockMonitor(InventoryService inventoryService,
+                           @Value("${inventory.low-stock.stream-timeout:30m}") Duration streamTimeout,
+                           @Value("${inventory.low-stock.subscriber-buffer:100}") int subscriberBuffer) {
+        this.inventoryService = inventoryService;
+        this.streamTimeout = streamTimeout;
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    /** Opens a stream that starts with a {@code snapshot} of the current low-stock SKUs. */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(subscriberBuffer));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        try {
+            emitter.send(SseEmitter.event().name("snapshot").data(inventoryService.getLowStockAlerts()));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        subscribers.add(subscriber);
+        log.debug("Low-stock stream opened ({} subscribers)", subscribers.size());
+        return emitter;
+    }
+
+    /** Queues a {@code crossing} event for every subscriber; never blocks on a client. */
+    @EventListener
+    public void onCrossing(LowStockEvent event) {
+        log.info("Low-stock crossing: {} is {} at {} available", event.getSkuCode(),
+                event.isLowStock() ? "low" : "restocked", event.getAvailableQuantity());
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.pending().offer(event)) {
+                log.warn("Low-stock subscriber fell {} crossings behind, closing its stream", subscriberBuffer);
+                subscribers.remove(subscriber);
+                subscriber.emitter().complete();
+            }
+        }
+        sender.execute(this::send);
+    }
+
+    private void send() {
+        for (Subscriber subscriber : subscribers) {
+            LowStockEvent event;
+            while ((event = subscriber.pending().poll()) != null) {
+                try {
+                    subscriber.emitter().send(SseEmitter.event().name("crossing").data(event));
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the stream was completed
+                    subscribers.remove(subscriber);
+                    subscriber.emitter().completeWithError(e);
+                    break;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /** The crossing {@code inventory} has just made, from its current counts. */
+    static LowStockEvent crossing(Inventory inventory) {
+        return LowStockEvent.builder()
+                .skuCode(inventory.getSkuCode())
+                .availableQuantity(inventory.getAvailableQuantity())
+                .lowStock(inventory.isLowStock())
+                .detectedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.entity.StockReservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Flash Sale Service Tests")
+class FlashSaleServiceTest {
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    private final StockReservationRepository reservationRepository = mock(StockReservationRepository.class);
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    @DisplayName("Concurrent reservations on one SKU never oversell")
+    void apply_ConcurrentReservations_NoOversell() throws Exception {
+        int stock = 100_000;
+        int threads = 8;
+        int attemptsPerThread = 20_000;
+        InventoryRepository repository = repositoryWith(inventory("SKU-FLASH", stock, 0));
+        FlashSaleService flashSale = new FlashSaleService(
+                repository, reservationRepository, transactionTemplate, journalDirectory, event -> { });
+        flashSale.recover();
+        flashSale.open("SKU-FLASH");
+
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (flashSale.apply("SKU-FLASH", FlashSaleLedger.Operation.RESERVE, 1).applied()) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Inventory result = flashSale.find("SKU-FLASH").orElseThrow();
+        assertThat(reserved.get()).isEqualTo(stock);
+        assertThat(result.getReservedQuantity()).isEqualTo(stock);
+        assertThat(result.getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should write journaled counts back and reopen the SKU after a crash")
+    void recover_ReplaysJournal() throws IOException {
+        FlashSaleService crashed = new FlashSaleService(
+                repositoryWith(inventory("SKU-CRASH", 10, 0)), reservationRepository, transactionTemplate,
+                journalDirectory, event -> { });
+        crashed.recover();
+        crashed.open("SKU-CRASH");
+        crashed.apply("SKU-CRASH", FlashSaleLedger.Operation.RESERVE, 4);
+        crashed.apply("SKU-CRASH", FlashSaleLedger.Operation.DEDUCT, 1);
+        crashed.sync();
+
+        InventoryRepository repository = repositoryWith(inventory("SKU-CRASH", 9, 3));
+        FlashSaleService restarted = new FlashSaleService(
+                repository, reservationRepository, transactionTemplate, journalDirectory, event -> { });
+        restarted.recover();
+
+        verify(repository).setCounts("SKU-CRASH", 9, 3);
+        assertThat(restarted.find("SKU-CRASH")).get()
+                .extracting(Inventory::getAvailableQuantity)
+                .isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should write final counts on close and not reopen the SKU on restart")
+    void close_WritesBackAndEndsFlashSale() throws IOException {
+        InventoryRepository repository = repositoryWith(inventory("SKU-END", 5, 0));
+        FlashSaleService flashSale = new FlashSaleService(
+                repository, reservationRepository, transactionTemplate, journalDirectory, event -> { });
+        flashSale.recover();
+        flashSale.open("SKU-END");
+        flashSale.apply("SKU-END", FlashSaleLedger.Operation.RESERVE, 2);
+
+        flashSale.close("SKU-END");
+
+        verify(repository).setCounts("SKU-END", 5, 2);
+        assertThat(flashSale.apply("SKU-END", FlashSaleLedger.Operation.RESERVE, 1)).isNull();
+
+        InventoryRepository restartedRepository = repositoryWith(inventory("SKU-END", 5, 2));
+        FlashSaleService restarted = new FlashSaleService(
+                restartedRepository, reservationRepository, transactionTemplate, journalDirectory, event -> { });
+        restarted.recover();
+        verify(restartedRepository, never()).setCounts(anyString(), anyInt(), anyInt());
+        assertThat(restarted.isOpen("SKU-END")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the flash sale running when the final write-back fails")
+    void close_WriteBackFails_ReopensSlot() throws IOException {
+        InventoryRepository repository = repositoryWith(inventory("SKU-RETRY", 8, 0));
+        when(repository.setCounts("SKU-RETRY", 8, 3))
+                .thenThrow(new QueryTimeoutException("timed out"))
+                .thenReturn(1);
+        FlashSaleService flashSale = new FlashSaleService(
+                repository, reservationRepository, transactionTemplate, journalDirectory, event -> { });
+        flashSale.recover();
+        flashSale.open("SKU-RETRY");
+        flashSale.apply("SKU-RETRY", FlashSaleLedger.Operation.RESERVE, 3);
+
+        assertThatThrownBy(() -> flashSale.close("SKU-RETRY")).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(flashSale.isOpen("SKU-RETRY")).isTrue();
+        assertThat(flashSale.find("SKU-RETRY")).get()
+                .extracting(Inventory::getReservedQuantity)
+                .isEqualTo(3);
+        flashSale.close("SKU-RETRY");
+        verify(repository, times(2)).setCounts("SKU-RETRY", 8, 3);
+        assertThat(flashSale.isOpen("SKU-RETRY")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should flush changed counts and drop journal segments behind the checkpoint")
+    void flush_WritesChangedCountsAndRotates() throws IOException {
+        InventoryRepository repository = repositoryWith(inventory("SKU-FLUSH", 20, 0));
+        FlashSaleService flashSale = new FlashSaleService(
+                repository, reservationRepository, transactionTemplate, journalDirectory, event -> { });
+        flashSale.recover();
+        flashSale.open("SKU-FLUSH");
+        flashSale.apply("SKU-FLUSH", FlashSaleLedger.Operation.RESERVE, 5);
+
+        flashSale.flush();
+        flashSale.flush();
+
+        verify(repository).setCounts("SKU-FLUSH", 20, 5);
+        assertThat(new FlashSaleJournal(journalDirectory).segments()).hasSize(1);
+        assertThat(new FlashSaleJournal(journalDirectory).replay().states())
+                .containsEntry("SKU-FLUSH", FlashSaleLedger.pack(20, 5));
+    }
+
+    @Test
+    @DisplayName("Should settle a hold whose ledger change outlived its database commit on restart")
+    void recover_SettlesJournaledHolds() throws IOException {
+        FlashSaleService crashed = new FlashSaleService(
+                repositoryWith(inventory("SKU-HOLD", 10, 4)), reservationRepository, transactionTemplate,
+                journalDirectory, event -> { });
+        crashed.recover();
+        crashed.open("SKU-HOLD");
+        crashed.settle(hold(41L, "SKU-HOLD", 3), ReservationStatus.CONFIRMED);
+        crashed.settle(hold(42L, "SKU-HOLD", 1), ReservationStatus.RELEASED);
+        crashed.settled(List.of(42L));
+        crashed.sync();
+
+        assertThat(crashed.pendingSettlement(41L)).contains(ReservationStatus.CONFIRMED);
+        assertThat(crashed.pendingSettlement(42L)).isEmpty();
+
+        InventoryRepository repository = repositoryWith(inventory("SKU-HOLD", 10, 4));
+        StockReservationRepository restartedReservations = mock(StockReservationRepository.class);
+        FlashSaleService restarted = new FlashSaleService(
+                repository, restartedReservations, transactionTemplate, journalDirectory, event -> { });
+        restarted.recover();
+
+        verify(repository).setCounts("SKU-HOLD", 7, 0);
+        verify(restartedReservations).settle(41L, ReservationStatus.CONFIRMED);
+        verify(restartedReservations, never()).settle(eq(42L), any());
+    }
+
+    @Test
+    @DisplayName("Should keep unfinished hold settlements across journal rotation")
+    void flush_KeepsPendingSettlements() throws IOException {
+        FlashSaleService flashSale = new FlashSaleService(
+                repositoryWith(inventory("SKU-KEEP", 10, 2)), reservationRepository, transactionTemplate,
+                journalDirectory, event -> { });
+        flashSale.recover();
+        flashSale.open("SKU-KEEP");
+        flashSale.settle(hold(51L, "SKU-KEEP", 2), ReservationStatus.EXPIRED);
+
+        flashSale.flush();
+
+        assertThat(new FlashSaleJournal(journalDirectory).replay().settlements())
+                .containsOnlyKeys(51L);
+        assertThat(new FlashSaleJournal(journalDirectory).replay().states())
+                .containsEntry("SKU-KEEP", FlashSaleLedger.pack(10, 0));
+    }
+
+    private static StockReservation hold(Long id, String skuCode, int quantity) {
+        return StockReservation.builder()
+                .id(id)
+                .orderNumber("ORD-" + id)
+                .skuCode(skuCode)
+                .quantity(quantity)
+                .status(ReservationStatus.HELD)
+                .build();
+    }
+
+    private static InventoryRepository repositoryWith(Inventory inventory) {
+        InventoryRepository repository = mock(InventoryRepository.class);
+        when(repository.findBySkuCodeForUpdate(inventory.getSkuCode())).thenReturn(Optional.of(inventory));
+        when(repository.findBySkuCode(inventory.getSkuCode())).thenReturn(Optional.of(inventory));
+        return repository;
+    }
+
+    private static Inventory inventory(String skuCode, int quantity, int reserved) {
+        return Inventory.builder()
+                .id(1L)
+                .skuCode(skuCode)
+                .quantity(quantity)
+                .reservedQuantity(reserved)
+                .build();
+    }
+}
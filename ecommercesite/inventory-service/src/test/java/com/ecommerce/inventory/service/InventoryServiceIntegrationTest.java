@@ -0,0 +1,374 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.inventory.dto.BatchReservationRequest;
+import com.ecommerce.inventory.dto.BatchReservationResponse;
+import com.ecommerce.inventory.dto.InventoryResponse;
+import com.ecommerce.inventory.dto.LowStockEvent;
+import com.ecommerce.inventory.dto.StockLevel;
+import com.ecommerce.inventory.dto.StockRequest;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.entity.StockReservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockReservationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@DisplayName("Inventory Service Integration Tests")
+class InventoryServiceIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    @DisplayName("Concurrent reservations on one SKU never oversell")
+    void reserveStock_ConcurrentRequests_NoOversell() throws Exception {
+        int stock = 200;
+        int threads = 16;
+        int attemptsPerThread = 40;
+        inventoryService.addStock(new StockRequest("SKU-HOT", stock));
+
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    try {
+                        inventoryService.reserveStock(new StockRequest("SKU-HOT", 1));
+                        reserved.incrementAndGet();
+                    } catch (BadRequestException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        InventoryResponse result = inventoryService.getStock("SKU-HOT");
+        assertThat(reserved.get()).isEqualTo(stock);
+        assertThat(rejected.get()).isEqualTo(threads * attemptsPerThread - stock);
+        assertThat(result.getReservedQuantity()).isEqualTo(stock);
+        assertThat(result.getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reserve, release and deduct keep counters consistent")
+    void reserveReleaseDeduct_Success() {
+        inventoryService.addStock(new StockRequest("SKU-FLOW", 10));
+
+        inventoryService.reserveStock(new StockRequest("SKU-FLOW", 6));
+        inventoryService.releaseStock(new StockRequest("SKU-FLOW", 2));
+        InventoryResponse result = inventoryService.confirmStockDeduction(new StockRequest("SKU-FLOW", 4));
+
+        assertThat(result.getQuantity()).isEqualTo(6);
+        assertThat(result.getReservedQuantity()).isZero();
+        assertThat(result.getAvailableQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should reject reservations and deductions beyond available stock")
+    void reserveStock_Insufficient_ThrowsException() {
+        inventoryService.addStock(new StockRequest("SKU-LOW", 3));
+
+        assertThatThrownBy(() -> inventoryService.reserveStock(new StockRequest("SKU-LOW", 4)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Available: 3");
+        assertThatThrownBy(() -> inventoryService.confirmStockDeduction(new StockRequest("SKU-LOW", 1)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(inventoryService.getStock("SKU-LOW").getReservedQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Batch reservation is all-or-nothing and reports every shortfall")
+    void reserveBatch_Shortfall_ReservesNothing() {
+        inventoryService.addStock(new StockRequest("SKU-BATCH-A", 5));
+        inventoryService.addStock(new StockRequest("SKU-BATCH-B", 1));
+
+        BatchReservationResponse result = inventoryService.reserveBatch(new BatchReservationRequest(List.of(
+                new StockRequest("SKU-BATCH-A", 3),
+                new StockRequest("SKU-BATCH-B", 2),
+                new StockRequest("SKU-BATCH-MISSING", 1))));
+
+        assertThat(result.isReserved()).isFalse();
+        assertThat(result.getShortfalls())
+                .extracting(BatchReservationResponse.Shortfall::getSkuCode)
+                .containsExactly("SKU-BATCH-B", "SKU-BATCH-MISSING");
+        assertThat(inventoryService.getStock("SKU-BATCH-A").getReservedQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Batch reservation merges repeated SKUs and reserves all items")
+    void reserveBatch_Success() {
+        inventoryService.addStock(new StockRequest("SKU-BATCH-C", 5));
+        inventoryService.addStock(new StockRequest("SKU-BATCH-D", 5));
+
+        BatchReservationResponse result = inventoryService.reserveBatch(new BatchReservationRequest(List.of(
+                new StockRequest("SKU-BATCH-C", 2),
+                new StockRequest("SKU-BATCH-D", 1),
+                new StockRequest("SKU-BATCH-C", 3))));
+
+        assertThat(result.isReserved()).isTrue();
+        assertThat(inventoryService.getStock("SKU-BATCH-C").getAvailableQuantity()).isZero();
+        assertThat(inventoryService.getStock("SKU-BATCH-D").getAvailableQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Concurrent additions, including the ones creating the SKU, are never lost")
+    void addStock_ConcurrentRequests_NoLostUpdates() throws Exception {
+        int threads = 16;
+        int additionsPerThread = 25;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < additionsPerThread; i++) {
+                    inventoryService.addStock(new StockRequest("SKU-ADD-RACE", 2));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(inventoryService.getStock("SKU-ADD-RACE").getQuantity()).isEqualTo(threads * additionsPerThread * 2);
+    }
+
+    @Test
+    @DisplayName("Flash-sale reservations go through the ledger and are written back when the sale ends")
+    void flashSale_ReserveAndWriteBack() {
+        inventoryService.addStock(new StockRequest("SKU-FLASH-SALE", 20));
+        inventoryService.addStock(new StockRequest("SKU-FLASH-OTHER", 1));
+        inventoryService.startFlashSale("SKU-FLASH-SALE");
+
+        inventoryService.reserveStock(new StockRequest("SKU-FLASH-SALE", 5));
+        BatchReservationResponse rejected = inventoryService.reserveBatch(new BatchReservationRequest(List.of(
+                new StockRequest("SKU-FLASH-SALE", 3),
+                new StockRequest("SKU-FLASH-OTHER", 2))));
+        inventoryService.confirmStockDeduction(new StockRequest("SKU-FLASH-SALE", 2));
+
+        assertThat(rejected.isReserved()).isFalse();
+        assertThat(inventoryService.getStock("SKU-FLASH-SALE").getReservedQuantity()).isEqualTo(3);
+
+        InventoryResponse result = inventoryService.endFlashSale("SKU-FLASH-SALE");
+        assertThat(result.getQuantity()).isEqualTo(18);
+        assertThat(result.getReservedQuantity()).isEqualTo(3);
+        assertThat(inventoryService.reserveStock(new StockRequest("SKU-FLASH-SALE", 15)).getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Flash-sale order holds settle in the ledger and the database exactly once")
+    void flashSale_OrderHoldsSettleOnce() {
+        inventoryService.addStock(new StockRequest("SKU-FLASH-HOLD", 10));
+        inventoryService.startFlashSale("SKU-FLASH-HOLD");
+        inventoryService.reserveBatch(new BatchReservationRequest(List.of(new StockRequest("SKU-FLASH-HOLD", 4)), "ORD-FLASH-1"));
+        inventoryService.reserveBatch(new BatchReservationRequest(List.of(new StockRequest("SKU-FLASH-HOLD", 3)), "ORD-FLASH-2"));
+
+        inventoryService.confirmOrder("ORD-FLASH-1");
+        inventoryService.confirmOrder("ORD-FLASH-1");
+        inventoryService.releaseOrder("ORD-FLASH-2");
+        inventoryService.releaseOrder("ORD-FLASH-2");
+
+        assertThat(reservationRepository.findByOrderNumberAndSkuCode("ORD-FLASH-1", "SKU-FLASH-HOLD"))
+                .get().extracting(StockReservation::getStatus).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(reservationRepository.findByOrderNumberAndSkuCode("ORD-FLASH-2", "SKU-FLASH-HOLD"))
+                .get().extracting(StockReservation::getStatus).isEqualTo(ReservationStatus.RELEASED);
+        InventoryResponse result = inventoryService.endFlashSale("SKU-FLASH-HOLD");
+        assertThat(result.getQuantity()).isEqualTo(6);
+        assertThat(result.getReservedQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Order holds are reserved once per order and settled at most once")
+    void reserveBatch_WithOrderNumber_HoldsAreIdempotent() {
+        inventoryService.addStock(new StockRequest("SKU-HOLD-A", 10));
+        inventoryService.addStock(new StockRequest("SKU-HOLD-B", 10));
+        BatchReservationRequest request = new BatchReservationRequest(List.of(
+                new StockRequest("SKU-HOLD-A", 2),
+                new StockRequest("SKU-HOLD-B", 3)), "ORD-HOLD-1");
+
+        assertThat(inventoryService.reserveBatch(request).isReserved()).isTrue();
+        assertThat(inventoryService.reserveBatch(request).isReserved()).isTrue();
+        assertThat(inventoryService.getStock("SKU-HOLD-A").getReservedQuantity()).isEqualTo(2);
+
+        inventoryService.releaseStock(new StockRequest("SKU-HOLD-A", 2, "ORD-HOLD-1"));
+        inventoryService.releaseStock(new StockRequest("SKU-HOLD-A", 2, "ORD-HOLD-1"));
+        inventoryService.confirmStockDeduction(new StockRequest("SKU-HOLD-B", 3, "ORD-HOLD-1"));
+        InventoryResponse confirmed = inventoryService.confirmStockDeduction(new StockRequest("SKU-HOLD-B", 3, "ORD-HOLD-1"));
+
+        assertThat(inventoryService.getStock("SKU-HOLD-A").getReservedQuantity()).isZero();
+        assertThat(confirmed.getQuantity()).isEqualTo(7);
+        assertThat(confirmed.getReservedQuantity()).isZero();
+        assertThatThrownBy(() -> inventoryService.confirmStockDeduction(new StockRequest("SKU-HOLD-A", 2, "ORD-HOLD-1")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("released");
+    }
+
+    @Test
+    @DisplayName("Order-wide release and confirm settle every hold once and are safe to repeat")
+    void releaseOrder_And_ConfirmOrder_AreIdempotent() {
+        inventoryService.addStock(new StockRequest("SKU-ORDER-A", 10));
+        inventoryService.addStock(new StockRequest("SKU-ORDER-B", 10));
+        inventoryService.reserveBatch(new BatchReservationRequest(List.of(
+                new StockRequest("SKU-ORDER-A", 2),
+                new StockRequest("SKU-ORDER-B", 3)), "ORD-CANCEL-1"));
+        inventoryService.reserveBatch(new BatchReservationRequest(List.of(
+                new StockRequest("SKU-ORDER-A", 4),
+                new StockRequest("SKU-ORDER-B", 1)), "ORD-PAID-1"));
+
+        inventoryService.releaseOrder("ORD-CANCEL-1");
+        List<InventoryResponse> released = inventoryService.releaseOrder("ORD-CANCEL-1");
+        inventoryService.confirmOrder("ORD-PAID-1");
+        inventoryService.confirmOrder("ORD-PAID-1");
+
+        assertThat(released).extracting(InventoryResponse::getSkuCode)
+                .containsExactlyInAnyOrder("SKU-ORDER-A", "SKU-ORDER-B");
+        assertThat(inventoryService.getStock("SKU-ORDER-A").getQuantity()).isEqualTo(6);
+        assertThat(inventoryService.getStock("SKU-ORDER-A").getReservedQuantity()).isZero();
+        assertThat(inventoryService.getStock("SKU-ORDER-B").getQuantity()).isEqualTo(9);
+        assertThat(inventoryService.getStock("SKU-ORDER-B").getReservedQuantity()).isZero();
+        assertThat(inventoryService.releaseOrder("ORD-UNKNOWN")).isEmpty();
+        assertThatThrownBy(() -> inventoryService.confirmOrder("ORD-CANCEL-1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("released");
+    }
+
+    @Test
+    @DisplayName("Stock lookup resolves many SKUs across chunks in request order")
+    void lookupStock_ManySkus_ReturnsLevelsInRequestOrder() {
+        List<String> skuCodes = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            skuCodes.add("SKU-LOOKUP-" + i);
+            inventoryService.addStock(new StockRequest("SKU-LOOKUP-" + i, i));
+        }
+        inventoryService.reserveStock(new StockRequest("SKU-LOOKUP-1199", 1190));
+        skuCodes.add(0, "SKU-LOOKUP-MISSING");
+        skuCodes.add("SKU-LOOKUP-1199");
+
+        Map<String, StockLevel> levels = inventoryService.lookupStock(skuCodes);
+
+        assertThat(levels).hasSize(1200).doesNotContainKey("SKU-LOOKUP-MISSING");
+        assertThat(levels.keySet()).first().isEqualTo("SKU-LOOKUP-0");
+        assertThat(levels.get("SKU-LOOKUP-700")).isEqualTo(new StockLevel(700, false));
+        assertThat(levels.get("SKU-LOOKUP-1199")).isEqualTo(new StockLevel(9, true));
+    }
+
+    @Test
+    @DisplayName("Stock updates keep the low-stock flag in step and publish a crossing when it flips")
+    void lowStock_FlagFollowsUpdatesAndCrossingsAreReported() {
+        inventoryService.addStock(new StockRequest("SKU-LOW-ALERT", 30));
+
+        inventoryService.reserveStock(new StockRequest("SKU-LOW-ALERT", 25));
+        assertThat(inventoryRepository.findLowStockItems()).extracting(Inventory::getSkuCode).contains("SKU-LOW-ALERT");
+        inventoryService.reserveStock(new StockRequest("SKU-LOW-ALERT", 1));
+
+        inventoryService.releaseStock(new StockRequest("SKU-LOW-ALERT", 11));
+        assertThat(inventoryRepository.findLowStockItems()).extracting(Inventory::getSkuCode).doesNotContain("SKU-LOW-ALERT");
+
+        assertThat(events.stream(LowStockEvent.class).filter(event -> event.getSkuCode().equals("SKU-LOW-ALERT")))
+                .satisfiesExactly(
+                        event -> {
+                            assertThat(event.isLowStock()).isTrue();
+                            assertThat(event.getAvailableQuantity()).isEqualTo(5);
+                        },
+                        event -> {
+                            assertThat(event.isLowStock()).isFalse();
+                            assertThat(event.getAvailableQuantity()).isEqualTo(15);
+                        });
+    }
+
+    @Test
+    @DisplayName("Startup resync corrects low-stock flags that disagree with their counts")
+    void syncLowStockFlags_CorrectsStaleFlags() {
+        inventoryService.addStock(new StockRequest("SKU-LOW-STALE", 3));
+        jdbcTemplate.update("UPDATE inventory SET low_stock = false WHERE sku_code = ?", "SKU-LOW-STALE");
+
+        inventoryService.syncLowStockFlags();
+
+        assertThat(inventoryRepository.findLowStockItems()).extracting(Inventory::getSkuCode).contains("SKU-LOW-STALE");
+    }
+
+    @Test
+    @DisplayName("A batch reservation's holdSeconds sets how long its holds last")
+    void reserveBatch_WithHoldSeconds_SetsExpiry() {
+        inventoryService.addStock(new StockRequest("SKU-HOLD-LONG", 5));
+
+        inventoryService.reserveBatch(new BatchReservationRequest(
+                List.of(new StockRequest("SKU-HOLD-LONG", 1)), "ORD-HOLD-LONG", 7200L));
+
+        assertThat(reservationRepository.findByOrderNumberAndSkuCode("ORD-HOLD-LONG", "SKU-HOLD-LONG"))
+                .get()
+                .extracting(StockReservation::getExpiresAt)
+                .satisfies(expiresAt -> assertThat(expiresAt).isAfter(LocalDateTime.now().plusMinutes(119)));
+    }
+
+    @Test
+    @DisplayName("Expired holds are released by the sweeper")
+    void releaseExpiredReservations_ReleasesExpiredHolds() {
+        inventoryService.addStock(new StockRequest("SKU-EXPIRE", 5));
+        inventoryService.reserveStock(new StockRequest("SKU-EXPIRE", 4, "ORD-EXPIRE-1"));
+        reservationRepository.findByOrderNumberAndSkuCode("ORD-EXPIRE-1", "SKU-EXPIRE").ifPresent(hold -> {
+            hold.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+            reservationRepository.save(hold);
+        });
+
+        inventoryService.releaseExpiredReservations();
+
+        assertThat(inventoryService.getStock("SKU-EXPIRE").getAvailableQuantity()).isEqualTo(5);
+        assertThat(reservationRepository.findByOrderNumberAndSkuCode("ORD-EXPIRE-1", "SKU-EXPIRE"))
+                .get()
+                .extracting(StockReservation::getStatus)
+                .isEqualTo(ReservationStatus.EXPIRED);
+    }
+}
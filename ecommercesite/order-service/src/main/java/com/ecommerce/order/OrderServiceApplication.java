@@ -1,12 +1,16 @@
 package com.ecommerce.order;
 
+import com.ecommerce.common.idempotency.EnableIdempotency;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@EnableIdempotency
 @ComponentScan(basePackages = {"com.ecommerce.order", "com.ecommerce.common"})
 public class OrderServiceApplication {
 
@@ -4,7 +4,9 @@ import com.ecommerce.common.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
-@FeignClient(name = "inventory-service", fallback = InventoryClientFallback.class)
+import java.util.List;
+
+@FeignClient(name = "inventory-service", fallbackFactory = InventoryClientFallbackFactory.class)
 public interface InventoryClient {
 
     @GetMapping("/api/inventory/check/{skuCode}")
@@ -13,8 +15,24 @@ public interface InventoryClient {
     @PostMapping("/api/inventory/reserve")
     ApiResponse<Object> reserveStock(@RequestBody StockRequest request);
 
+    @PostMapping("/api/inventory/reserve-batch")
+    ApiResponse<BatchReservationResult> reserveBatch(@RequestBody BatchReservationRequest request);
+
     @PostMapping("/api/inventory/release")
     ApiResponse<Object> releaseStock(@RequestBody StockRequest request);
 
-    record StockRequest(String skuCode, Integer quantity) {}
+    @PostMapping("/api/inventory/confirm-deduction")
+    ApiResponse<Object> confirmDeduction(@RequestBody StockRequest request);
+
+    @PostMapping("/api/inventory/orders/{orderNumber}/release")
+    ApiResponse<Object> releaseOrder(@PathVariable("orderNumber") String orderNumber);
+
+    @PostMapping("/api/inventory/orders/{orderNumber}/confirm")
+    ApiResponse<Object> confirmOrder(@PathVariable("orderNumber") String orderNumber);
+
+    // With an order number, inventory-service keeps the units as an expiring hold owned by that order
+    record StockRequest(String skuCode, Integer quantity, String orderNumber) {}
+    record BatchReservationRequest(List<StockRequest> items, String orderNumber, Long holdSeconds) {}
+    record BatchReservationResult(boolean reserved, List<Shortfall> shortfalls) {}
+    record Shortfall(String skuCode, Integer requested, Integer available) {}
 }
@@ -20,9 +20,33 @@ public class InventoryClientFallback implements InventoryClient {
         return ApiResponse.error("Inventory service is currently unavailable");
     }
 
+    @Override
+    public ApiResponse<BatchReservationResult> reserveBatch(BatchReservationRequest request) {
+        log.warn("Fallback triggered for reserveBatch: {} items", request.items().size());
+        return ApiResponse.error("Inventory service is currently unavailable");
+    }
+
     @Override
     public ApiResponse<Object> releaseStock(StockRequest request) {
         log.warn("Fallback triggered for releaseStock: {}", request.skuCode());
         return ApiResponse.error("Inventory service is currently unavailable");
     }
+
+    @Override
+    public ApiResponse<Object> confirmDeduction(StockRequest request) {
+        log.warn("Fallback triggered for confirmDeduction: {}", request.skuCode());
+        return ApiResponse.error("Inventory service is currently unavailable");
+    }
+
+    @Override
+    public ApiResponse<Object> releaseOrder(String orderNumber) {
+        log.warn("Fallback triggered for releaseOrder: {}", orderNumber);
+        return ApiResponse.error("Inventory service is currently unavailable");
+    }
+
+    @Override
+    public ApiResponse<Object> confirmOrder(String orderNumber) {
+        log.warn("Fallback triggered for confirmOrder: {}", orderNumber);
+        return ApiResponse.error("Inventory service is currently unavailable");
+    }
 }
@@ -0,0 +1,29 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ConflictException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * A 400 or 409 from inventory-service, such as a batch it could not reserve, is a definite
+ * answer and is rethrown. Any other failure falls back to {@link InventoryClientFallback}.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryClientFallbackFactory implements FallbackFactory<InventoryClient> {
+
+    private final InventoryClientFallback fallback;
+
+    @Override
+    public InventoryClient create(Throwable cause) {
+        if (cause instanceof BadRequestException rejected) {
+            throw rejected;
+        }
+        if (cause instanceof ConflictException conflict) {
+            throw conflict;
+        }
+        return fallback;
+    }
+}
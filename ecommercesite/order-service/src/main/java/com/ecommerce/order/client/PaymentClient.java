@@ -2,16 +2,22 @@ package com.ecommerce.order.client;
 
 import com.ecommerce.common.dto.ApiResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import java.math.BigDecimal;
 
-@FeignClient(name = "payment-service", fallback = PaymentClientFallback.class)
+@FeignClient(name = "payment-service", fallbackFactory = PaymentClientFallbackFactory.class)
 public interface PaymentClient {
 
     @PostMapping("/api/payments/initiate")
-    ApiResponse<PaymentDto> initiatePayment(@RequestBody PaymentRequest request);
+    ApiResponse<PaymentDto> initiatePayment(@RequestHeader("Idempotency-Key") String idempotencyKey,
+                                            @RequestBody PaymentRequest request);
+
+    @PostMapping("/api/payments/refund/{transactionId}")
+    ApiResponse<PaymentDto> refundPayment(@PathVariable("transactionId") String transactionId);
 
     record PaymentRequest(String orderId, BigDecimal amount, String method) {}
     record PaymentDto(Long id, String orderId, BigDecimal amount, String status, String transactionId) {}
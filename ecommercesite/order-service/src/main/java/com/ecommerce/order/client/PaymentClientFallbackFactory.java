@@ -0,0 +1,38 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * A 400 from payment-service is a definite answer and is rethrown as a
+ * {@link BadRequestException}. Any other failure (timeout, 409 while the first attempt under
+ * the same key is still running, 5xx, open circuit) leaves the outcome unknown and becomes an
+ * error response, which callers must not read as "not charged".
+ */
+@Component
+@Slf4j
+public class PaymentClientFallbackFactory implements FallbackFactory<PaymentClient> {
+
+    @Override
+    public PaymentClient create(Throwable cause) {
+        if (cause instanceof BadRequestException) {
+            throw new BadRequestException("Payment rejected: " + cause.getMessage());
+        }
+        return new PaymentClient() {
+            @Override
+            public ApiResponse<PaymentDto> initiatePayment(String idempotencyKey, PaymentRequest request) {
+                log.warn("Fallback triggered for initiatePayment for order: {} ({})", request.orderId(), cause.toString());
+                return ApiResponse.error("Payment service is currently unavailable");
+            }
+
+            @Override
+            public ApiResponse<PaymentDto> refundPayment(String transactionId) {
+                log.warn("Fallback triggered for refundPayment for transaction: {} ({})", transactionId, cause.toString());
+                return ApiResponse.error("Payment service is currently unavailable");
+            }
+        };
+    }
+}
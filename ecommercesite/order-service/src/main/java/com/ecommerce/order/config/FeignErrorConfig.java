@@ -0,0 +1,47 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ConflictException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes 400 and 409 answers from downstream services into {@link BadRequestException} and
+ * {@link ConflictException}, carrying the service's own error message, so a client's fallback
+ * factory can tell a definite rejection from an outage. Other statuses decode as usual.
+ */
+@Configuration
+public class FeignErrorConfig {
+
+    @Bean
+    public ErrorDecoder errorDecoder(ObjectMapper objectMapper) {
+        ErrorDecoder defaults = new ErrorDecoder.Default();
+        return (methodKey, response) -> switch (response.status()) {
+            case 400 -> new BadRequestException(messageOf(response, objectMapper));
+            case 409 -> new ConflictException(messageOf(response, objectMapper));
+            default -> defaults.decode(methodKey, response);
+        };
+    }
+
+    // The ErrorResponse body's message, or the status line when there is none
+    private static String messageOf(Response response, ObjectMapper objectMapper) {
+        if (response.body() != null) {
+            try (InputStream body = response.body().asInputStream()) {
+                JsonNode message = objectMapper.readTree(body).path("message");
+                if (message.isTextual()) {
+                    return message.asText();
+                }
+            } catch (IOException e) {
+                // Not an ErrorResponse; fall back to the status line
+            }
+        }
+        return response.status() + " " + response.reason();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.common.concurrent.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class OrderExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor orderExecutor(
+            @Value("${order.executor.core-size:16}") int coreSize,
+            @Value("${order.executor.max-size:32}") int maxSize,
+            @Value("${order.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("order-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        // When saturated, run the lookup on the request thread instead of failing the order
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs checkout sagas for asynchronously accepted orders. A fixed set of workers drains
+     * a bounded queue, so bursts wait in the queue rather than spawning threads; submissions
+     * beyond the queue are rejected.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor orderSagaExecutor(
+            @Value("${order.saga.workers:4}") int workers,
+            @Value("${order.saga.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("order-saga-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
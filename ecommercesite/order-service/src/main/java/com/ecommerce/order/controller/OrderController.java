@@ -1,6 +1,7 @@
 package com.ecommerce.order.controller;
 
 import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.idempotency.IdempotencyService;
 import com.ecommerce.order.dto.OrderRequest;
 import com.ecommerce.order.dto.OrderResponse;
 import com.ecommerce.order.entity.OrderStatus;
@@ -20,13 +21,30 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
-    @Operation(summary = "Create a new order")
+    @Operation(summary = "Create a new order, or accept it for background checkout with async=true")
     public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
             @Valid @RequestBody OrderRequest request,
-            @RequestHeader(value = "X-Auth-User", defaultValue = "anonymous") String userId) {
-        OrderResponse response = orderService.createOrder(request, userId);
+            @RequestHeader(value = "X-Auth-User", defaultValue = "anonymous") String userId,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return createOrder(request, userId, async);
+        }
+        // Keys are scoped per user so one client cannot replay another's order
+        return idempotencyService.execute(userId + ":" + idempotencyKey, request, OrderResponse.class,
+                () -> createOrder(request, userId, async));
+    }
+
+    private ResponseEntity<ApiResponse<OrderResponse>> createOrder(OrderRequest request, String userId, boolean async) {
+        if (async) {
+            OrderResponse response = orderService.submitOrder(request, userId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Order accepted", response));
+        }
+        OrderResponse response = orderService.createOrder(request, userId, OrderService.newOrderNumber());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Order created successfully", response));
     }
@@ -16,7 +16,8 @@ import java.util.List;
 @Entity
 @Table(name = "orders", indexes = {
         @Index(name = "idx_order_number", columnList = "orderNumber", unique = true),
-        @Index(name = "idx_order_user", columnList = "userId")
+        @Index(name = "idx_order_user", columnList = "userId"),
+        @Index(name = "idx_order_status_updated", columnList = "status, updatedAt")
 })
 @Data
 @Builder
@@ -45,6 +46,11 @@ public class Order {
     @Column(length = 500)
     private String shippingAddress;
 
+    // Set for orders driven by the background checkout saga, so stalled ones can be resumed
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private boolean asyncCheckout = false;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<OrderLineItem> lineItems = new ArrayList<>();
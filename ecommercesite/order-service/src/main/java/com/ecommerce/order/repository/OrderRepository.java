@@ -2,11 +2,17 @@ package com.ecommerce.order.repository;
 
 import com.ecommerce.order.entity.Order;
 import com.ecommerce.order.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +23,21 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserId(String userId, Pageable pageable);
 
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+
+    List<Order> findByStatusAndAsyncCheckoutTrueAndUpdatedAtBefore(OrderStatus status, LocalDateTime before, Limit limit);
+
+    List<Order> findByStatusAndAsyncCheckoutFalseAndUpdatedAtBefore(OrderStatus status, LocalDateTime before, Limit limit);
+
+    /** Claims a stalled order for resumption; 0 when another node touched it first. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.updatedAt = LOCAL DATETIME WHERE o.id = :id AND o.updatedAt = :seen")
+    int claim(@Param("id") Long id, @Param("seen") LocalDateTime seen);
+
+    /** Moves the order to {@code to} only if it is still in {@code from}; 0 when it was not. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = LOCAL DATETIME "
+            + "WHERE o.orderNumber = :orderNumber AND o.status = :from")
+    int transition(@Param("orderNumber") String orderNumber,
+                   @Param("from") OrderStatus from,
+                   @Param("to") OrderStatus to);
 }
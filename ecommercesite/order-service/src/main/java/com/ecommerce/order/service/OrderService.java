@@ -2,7 +2,9 @@ package com.ecommerce.order.service;
 
 import com.ecommerce.common.dto.ApiResponse;
 import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ConflictException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
+import com.ecommerce.common.exception.ServiceUnavailableException;
 import com.ecommerce.order.client.InventoryClient;
 import com.ecommerce.order.client.PaymentClient;
 import com.ecommerce.order.client.ProductClient;
@@ -14,116 +16,518 @@ import com.ecommerce.order.entity.OrderStatus;
 import com.ecommerce.order.repository.OrderRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    private static final Duration CHECKOUT_RETRY_AFTER = Duration.ofSeconds(5);
+    private static final int RECOVERY_BATCH_SIZE = 100;
+    private static final Set<String> PAYMENT_IN_FLIGHT = Set.of("PENDING", "PROCESSING");
+
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
     private final InventoryClient inventoryClient;
     private final PaymentClient paymentClient;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final ThreadPoolTaskExecutor sagaExecutor;
+    private final Duration productTimeout;
+    private final Duration sagaStallTimeout;
+    private final Duration confirmTimeout;
+
+    public OrderService(OrderRepository orderRepository,
+                        ProductClient productClient,
+                        InventoryClient inventoryClient,
+                        PaymentClient paymentClient,
+                        TransactionTemplate transactionTemplate,
+                        @Qualifier("orderExecutor") ThreadPoolTaskExecutor executor,
+                        @Qualifier("orderSagaExecutor") ThreadPoolTaskExecutor sagaExecutor,
+                        @Value("${order.timeout.product:2s}") Duration productTimeout,
+                        @Value("${order.saga.stall-timeout:5m}") Duration sagaStallTimeout,
+                        @Value("${order.confirm-timeout:15m}") Duration confirmTimeout) {
+        this.orderRepository = orderRepository;
+        this.productClient = productClient;
+        this.inventoryClient = inventoryClient;
+        this.paymentClient = paymentClient;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.sagaExecutor = sagaExecutor;
+        this.productTimeout = productTimeout;
+        this.sagaStallTimeout = sagaStallTimeout;
+        this.confirmTimeout = confirmTimeout;
+    }
 
-    @Transactional
+    /**
+     * Remote lookups and the stock reservation run outside any transaction, so retries and
+     * slow downstream calls never hold a pooled connection; only the final insert does.
+     *
+     * <p>The caller picks the order number (see {@link #newOrderNumber()}) so every retry
+     * reuses it, and the stock hold inventory-service keeps per order is taken only once.
+     * The order must be confirmed within {@code order.confirm-timeout} or
+     * {@link #cancelUnconfirmedOrders()} cancels it and releases the hold; the hold's own expiry
+     * is set well past that and only matters if this service stops sweeping.
+     */
     @CircuitBreaker(name = "orderService", fallbackMethod = "createOrderFallback")
     @Retry(name = "orderService")
-    public OrderResponse createOrder(OrderRequest request, String userId) {
-        log.info("Creating order for user: {}", userId);
+    public OrderResponse createOrder(OrderRequest request, String userId, String orderNumber) {
+        log.info("Creating order {} for user: {}", orderNumber, userId);
+
+        Order order = newOrder(orderNumber, request, userId);
+        List<OrderLineItem> lineItems = priceLineItems(request.getItems());
+        lineItems.forEach(order::addLineItem);
+
+        // Reserve stock for every line item in one all-or-nothing call
+        reserveStock(order.getOrderNumber(), lineItems, confirmTimeout.multipliedBy(2));
+
+        order.setTotalAmount(totalOf(lineItems));
+        OrderResponse response;
+        try {
+            response = transactionTemplate.execute(status -> mapToResponse(orderRepository.save(order)));
+        } catch (RuntimeException e) {
+            releaseStockQuietly(order.getOrderNumber());
+            throw e;
+        }
+
+        log.info("Order created: {} with total: {}", response.getOrderNumber(), response.getTotalAmount());
+        return response;
+    }
+
+    /**
+     * Persists the order as {@code PENDING} with unpriced line items and hands it to the
+     * checkout saga, which prices, reserves and pays for it in the background. Bursts queue
+     * up on the saga executor; once the queue is full new checkouts are refused with a 503.
+     * Orders whose saga died with the process are picked up by {@link #resumeStalledCheckouts()}.
+     */
+    public OrderResponse submitOrder(OrderRequest request, String userId) {
+        log.info("Accepting order for user: {}", userId);
+
+        Order order = newOrder(newOrderNumber(), request, userId);
+        order.setAsyncCheckout(true);
+        request.getItems().forEach(item -> order.addLineItem(OrderLineItem.builder()
+                .skuCode(item.getSkuCode())
+                .quantity(item.getQuantity())
+                .price(BigDecimal.ZERO)
+                .subtotal(BigDecimal.ZERO)
+                .build()));
+        OrderResponse response = transactionTemplate.execute(status -> mapToResponse(orderRepository.save(order)));
+
+        List<OrderRequest.OrderItemRequest> items = List.copyOf(request.getItems());
+        try {
+            sagaExecutor.execute(() -> runCheckoutSaga(response.getOrderNumber(), items, null));
+        } catch (TaskRejectedException e) {
+            log.warn("Checkout queue full, rejecting order: {}", response.getOrderNumber());
+            transition(response.getOrderNumber(), OrderStatus.PENDING, OrderStatus.CANCELLED);
+            throw new ServiceUnavailableException("Checkout is busy. Please try again later.", CHECKOUT_RETRY_AFTER);
+        }
+
+        log.info("Order accepted: {}", response.getOrderNumber());
+        return response;
+    }
+
+    /**
+     * Re-drives asynchronously accepted orders still {@code PENDING} after
+     * {@code order.saga.stall-timeout}, whose saga was lost with the process that ran it.
+     * Each order is claimed with a conditional update so only one node resumes it; the saga
+     * itself is idempotent per order number. Orders already priced keep their stored prices,
+     * so a retried payment sends the same request under the same key.
+     */
+    @Scheduled(fixedDelayString = "${order.saga.recovery-interval-ms:60000}",
+            initialDelayString = "${order.saga.recovery-initial-delay-ms:10000}")
+    public void resumeStalledCheckouts() {
+        record Stalled(Long id, String orderNumber, LocalDateTime seen, List<OrderRequest.OrderItemRequest> items,
+                       List<OrderLineItem> priced) {}
+        List<Stalled> stalled = transactionTemplate.execute(tx -> orderRepository
+                .findByStatusAndAsyncCheckoutTrueAndUpdatedAtBefore(
+                        OrderStatus.PENDING, LocalDateTime.now().minus(sagaStallTimeout), Limit.of(RECOVERY_BATCH_SIZE))
+                .stream()
+                .map(order -> new Stalled(order.getId(), order.getOrderNumber(), order.getUpdatedAt(),
+                        order.getLineItems().stream()
+                                .map(item -> new OrderRequest.OrderItemRequest(item.getSkuCode(), item.getQuantity()))
+                                .toList(),
+                        order.getTotalAmount().signum() > 0 ? order.getLineItems().stream()
+                                .map(item -> OrderLineItem.builder()
+                                        .skuCode(item.getSkuCode())
+                                        .quantity(item.getQuantity())
+                                        .price(item.getPrice())
+                                        .subtotal(item.getSubtotal())
+                                        .build())
+                                .toList() : null))
+                .toList());
+        int resumed = 0;
+        for (Stalled order : stalled) {
+            if (transactionTemplate.execute(tx -> orderRepository.claim(order.id(), order.seen())) == 0) {
+                continue;
+            }
+            try {
+                sagaExecutor.execute(() -> runCheckoutSaga(order.orderNumber(), order.items(), order.priced()));
+                resumed++;
+            } catch (TaskRejectedException e) {
+                // Queue is full; the order goes stale again and a later sweep retries it
+                break;
+            }
+        }
+        if (resumed > 0) {
+            log.info("Resumed {} stalled checkouts", resumed);
+        }
+    }
+
+    /**
+     * Cancels synchronously created orders still {@code PENDING} after
+     * {@code order.confirm-timeout} and releases their stock, so an abandoned order's status
+     * and its stock hold change together. The cancellation is conditional, so an order
+     * confirmed meanwhile is left alone.
+     */
+    @Scheduled(fixedDelayString = "${order.confirm-sweep-interval-ms:60000}",
+            initialDelayString = "${order.confirm-sweep-interval-ms:60000}")
+    public void cancelUnconfirmedOrders() {
+        List<String> unconfirmed = transactionTemplate.execute(tx -> orderRepository
+                .findByStatusAndAsyncCheckoutFalseAndUpdatedAtBefore(
+                        OrderStatus.PENDING, LocalDateTime.now().minus(confirmTimeout), Limit.of(RECOVERY_BATCH_SIZE))
+                .stream()
+                .map(Order::getOrderNumber)
+                .toList());
+        int cancelled = 0;
+        for (String orderNumber : unconfirmed) {
+            if (transition(orderNumber, OrderStatus.PENDING, OrderStatus.CANCELLED)) {
+                releaseStockQuietly(orderNumber);
+                cancelled++;
+            }
+        }
+        if (cancelled > 0) {
+            log.info("Cancelled {} orders not confirmed within {}", cancelled, confirmTimeout);
+        }
+    }
+
+    /**
+     * Drives an accepted order to {@code CONFIRMED}: price, reserve stock, record prices,
+     * take payment, then confirm the order and its stock. A failure before the reservation
+     * just cancels the order; later failures refund the payment if one was taken and release
+     * the reserved stock. Status changes are conditional, so a concurrent cancellation is
+     * never overwritten and a re-driven saga finding the order already confirmed stops.
+     *
+     * <p>When the payment's outcome is unknown (timeout, the first attempt under the key still
+     * running, payment-service unreachable) the charge may still go through, so nothing is
+     * compensated: the order stays {@code PENDING} with its stock held until
+     * {@link #resumeStalledCheckouts()} retries it under the same key. {@code priced} is the
+     * order's stored pricing when resuming one that got that far, otherwise null.
+     */
+    private void runCheckoutSaga(String orderNumber, List<OrderRequest.OrderItemRequest> items,
+                                 List<OrderLineItem> priced) {
+        log.info("Running checkout for order: {}", orderNumber);
+
+        List<OrderLineItem> lineItems;
+        try {
+            lineItems = priced != null ? priced : priceLineItems(items);
+            reserveStock(orderNumber, lineItems, null);
+        } catch (RuntimeException e) {
+            log.warn("Checkout failed for order {} before reservation: {}", orderNumber, e.getMessage());
+            transition(orderNumber, OrderStatus.PENDING, OrderStatus.CANCELLED);
+            return;
+        }
+
+        BigDecimal totalAmount = totalOf(lineItems);
+        String transactionId = null;
+        boolean confirmed = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyPrices(orderNumber, lineItems, totalAmount));
+
+            // Keyed by order so a re-driven saga cannot charge twice
+            ApiResponse<PaymentClient.PaymentDto> payment = paymentClient.initiatePayment("order-" + orderNumber,
+                    new PaymentClient.PaymentRequest(orderNumber, totalAmount, null));
+            if (!payment.isSuccess() || payment.getData() == null
+                    || PAYMENT_IN_FLIGHT.contains(payment.getData().status())) {
+                log.warn("Payment outcome unknown for order {}, leaving it pending for a retry: {}", orderNumber,
+                        payment.getData() != null ? payment.getData().status() : payment.getMessage());
+                return;
+            }
+            if (!"COMPLETED".equals(payment.getData().status())) {
+                throw new IllegalStateException("Payment not completed: " + payment.getData().status());
+            }
+            transactionId = payment.getData().transactionId();
+
+            if (!transition(orderNumber, OrderStatus.PENDING, OrderStatus.CONFIRMED)) {
+                OrderStatus current = orderRepository.findByOrderNumber(orderNumber)
+                        .map(Order::getStatus)
+                        .orElse(OrderStatus.CANCELLED);
+                if (current == OrderStatus.CONFIRMED) {
+                    log.info("Order {} was already confirmed by another checkout run", orderNumber);
+                    return;
+                }
+                throw new IllegalStateException("Order is no longer pending: " + current);
+            }
+            confirmed = true;
+            confirmStock(orderNumber);
+            log.info("Order confirmed: {} with total: {}", orderNumber, totalAmount);
+        } catch (RuntimeException e) {
+            log.warn("Checkout failed for order {}, compensating: {}", orderNumber, e.getMessage());
+            if (transactionId != null) {
+                refundPayment(transactionId);
+            }
+            releaseStockQuietly(orderNumber);
+            transition(orderNumber, confirmed ? OrderStatus.CONFIRMED : OrderStatus.PENDING, OrderStatus.CANCELLED);
+        }
+    }
+
+    private void applyPrices(String orderNumber, List<OrderLineItem> pricedItems, BigDecimal totalAmount) {
+        Order order = orderRepository.findByOrderNumber(orderNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
+        Map<String, BigDecimal> prices = pricedItems.stream()
+                .collect(Collectors.toMap(OrderLineItem::getSkuCode, OrderLineItem::getPrice, (a, b) -> a));
+        order.getLineItems().forEach(item -> {
+            item.setPrice(prices.get(item.getSkuCode()));
+            item.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        });
+        order.setTotalAmount(totalAmount);
+    }
+
+    private boolean transition(String orderNumber, OrderStatus from, OrderStatus to) {
+        try {
+            return Integer.valueOf(1).equals(transactionTemplate.execute(
+                    tx -> orderRepository.transition(orderNumber, from, to)));
+        } catch (RuntimeException e) {
+            log.error("Failed to move order {} from {} to {}", orderNumber, from, to, e);
+            return false;
+        }
+    }
 
-        Order order = Order.builder()
-                .orderNumber(UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+    private void refundPayment(String transactionId) {
+        try {
+            ApiResponse<PaymentClient.PaymentDto> response = paymentClient.refundPayment(transactionId);
+            if (!response.isSuccess()) {
+                log.error("Failed to refund payment {}: {}", transactionId, response.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Failed to refund payment: {}", transactionId, e);
+        }
+    }
+
+    public static String newOrderNumber() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private static Order newOrder(String orderNumber, OrderRequest request, String userId) {
+        return Order.builder()
+                .orderNumber(orderNumber)
                 .userId(userId)
                 .status(OrderStatus.PENDING)
                 .shippingAddress(request.getShippingAddress())
                 .totalAmount(BigDecimal.ZERO)
                 .build();
+    }
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
+    /**
+     * Fetches product details concurrently, then builds line items in request order.
+     */
+    private List<OrderLineItem> priceLineItems(List<OrderRequest.OrderItemRequest> items) {
+        Map<String, CompletableFuture<ProductClient.ProductDto>> products = fetchProducts(items);
 
-        for (OrderRequest.OrderItemRequest item : request.getItems()) {
-            // Fetch product details
-            ApiResponse<ProductClient.ProductDto> productResponse = productClient.getProductBySkuCode(item.getSkuCode());
-            if (!productResponse.isSuccess() || productResponse.getData() == null) {
-                throw new BadRequestException("Product not found: " + item.getSkuCode());
-            }
+        List<OrderLineItem> lineItems = new ArrayList<>(items.size());
+        for (OrderRequest.OrderItemRequest item : items) {
+            ProductClient.ProductDto product = join(products.get(item.getSkuCode()), item.getSkuCode());
+            lineItems.add(OrderLineItem.builder()
+                    .skuCode(item.getSkuCode())
+                    .quantity(item.getQuantity())
+                    .price(product.price())
+                    .subtotal(product.price().multiply(BigDecimal.valueOf(item.getQuantity())))
+                    .build());
+        }
+        return lineItems;
+    }
 
-            // Check inventory
-            ApiResponse<Boolean> stockResponse = inventoryClient.isInStock(item.getSkuCode(), item.getQuantity());
-            if (!stockResponse.isSuccess() || !Boolean.TRUE.equals(stockResponse.getData())) {
-                throw new BadRequestException("Insufficient stock for: " + item.getSkuCode());
-            }
+    private static BigDecimal totalOf(List<OrderLineItem> lineItems) {
+        return lineItems.stream()
+                .map(OrderLineItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 
-            // Reserve stock
-            inventoryClient.reserveStock(new InventoryClient.StockRequest(item.getSkuCode(), item.getQuantity()));
+    /**
+     * Starts one lookup per distinct SKU on the order executor. All lookups are submitted
+     * before any is awaited, so a cart costs roughly one product-service round trip.
+     */
+    private Map<String, CompletableFuture<ProductClient.ProductDto>> fetchProducts(
+            List<OrderRequest.OrderItemRequest> items) {
+        Map<String, CompletableFuture<ProductClient.ProductDto>> futures = new LinkedHashMap<>();
+        for (OrderRequest.OrderItemRequest item : items) {
+            futures.computeIfAbsent(item.getSkuCode(), skuCode -> CompletableFuture.supplyAsync(() -> {
+                        ApiResponse<ProductClient.ProductDto> response = productClient.getProductBySkuCode(skuCode);
+                        if (!response.isSuccess() || response.getData() == null) {
+                            throw new BadRequestException("Product not found: " + skuCode);
+                        }
+                        return response.getData();
+                    }, executor)
+                    .orTimeout(productTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        return futures;
+    }
 
-            BigDecimal subtotal = productResponse.getData().price().multiply(BigDecimal.valueOf(item.getQuantity()));
-            totalAmount = totalAmount.add(subtotal);
+    private static ProductClient.ProductDto join(CompletableFuture<ProductClient.ProductDto> future, String skuCode) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Timed out fetching product " + skuCode, e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
 
-            OrderLineItem lineItem = OrderLineItem.builder()
-                    .skuCode(item.getSkuCode())
-                    .quantity(item.getQuantity())
-                    .price(productResponse.getData().price())
-                    .subtotal(subtotal)
-                    .build();
+    /**
+     * Holds the stock under the order number for {@code holdFor}, or inventory-service's default
+     * when null. Holds expire if the order never confirms or releases them, so a crash or a
+     * failed release cannot leak reserved stock.
+     */
+    private void reserveStock(String orderNumber, List<OrderLineItem> lineItems, Duration holdFor) {
+        List<InventoryClient.StockRequest> items = lineItems.stream()
+                .map(item -> new InventoryClient.StockRequest(item.getSkuCode(), item.getQuantity(), orderNumber))
+                .toList();
+        ApiResponse<InventoryClient.BatchReservationResult> response;
+        try {
+            response = inventoryClient.reserveBatch(new InventoryClient.BatchReservationRequest(items, orderNumber,
+                    holdFor != null ? holdFor.toSeconds() : null));
+        } catch (ConflictException e) {
+            // Inventory-service names every short SKU in the message
+            throw new BadRequestException(e.getMessage());
+        }
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Stock reservation failed: " + response.getMessage());
+        }
+    }
 
-            order.addLineItem(lineItem);
+    /** Turns all of the order's holds into deductions; fails if any hold has already expired. */
+    private void confirmStock(String orderNumber) {
+        ApiResponse<Object> response = inventoryClient.confirmOrder(orderNumber);
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Stock confirmation failed for order " + orderNumber
+                    + ": " + response.getMessage());
         }
+    }
 
-        order.setTotalAmount(totalAmount);
-        Order savedOrder = orderRepository.save(order);
+    /**
+     * Releases all of the order's holds in one call. Inventory-service skips holds that are
+     * already settled, so a failed release can simply be retried.
+     */
+    private void releaseStock(String orderNumber) {
+        ApiResponse<Object> response = inventoryClient.releaseOrder(orderNumber);
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("Stock release failed for order " + orderNumber
+                    + ": " + response.getMessage());
+        }
+    }
+
+    // Compensation must not mask the original failure; unreleased holds expire on their own
+    private void releaseStockQuietly(String orderNumber) {
+        try {
+            releaseStock(orderNumber);
+        } catch (Exception e) {
+            log.error("Failed to release stock for order: {}", orderNumber, e);
+        }
+    }
 
-        log.info("Order created: {} with total: {}", savedOrder.getOrderNumber(), totalAmount);
-        return mapToResponse(savedOrder);
+    public OrderResponse createOrderFallback(OrderRequest request, String userId, String orderNumber,
+                                             BadRequestException e) {
+        throw e;
     }
 
-    public OrderResponse createOrderFallback(OrderRequest request, String userId, Throwable t) {
+    public OrderResponse createOrderFallback(OrderRequest request, String userId, String orderNumber, Throwable t) {
         log.error("Fallback triggered for createOrder. Reason: {}", t.getMessage());
         throw new BadRequestException("Order creation is temporarily unavailable. Please try again later.");
     }
 
-    @Transactional
+    /**
+     * Releases the stock first and commits the cancellation afterwards. The release is
+     * idempotent and leaves deducted holds alone, so if it fails the order is untouched and the
+     * call fails with 503, and if the cancellation then fails cancelling again finishes it; an
+     * order is never cancelled with its stock still held.
+     */
     public OrderResponse cancelOrder(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        Order current = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
-
-        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
-            throw new BadRequestException("Cannot cancel order in status: " + order.getStatus());
+        requireCancellable(current.getStatus());
+        try {
+            releaseStock(orderNumber);
+        } catch (RuntimeException e) {
+            log.warn("Stock release failed for order {}, not cancelling: {}", orderNumber, e.getMessage());
+            throw new ServiceUnavailableException("Order cannot be cancelled right now. Please try again later.",
+                    CHECKOUT_RETRY_AFTER);
         }
 
-        // Release reserved stock
-        order.getLineItems().forEach(item -> {
-            try {
-                inventoryClient.releaseStock(new InventoryClient.StockRequest(item.getSkuCode(), item.getQuantity()));
-            } catch (Exception e) {
-                log.error("Failed to release stock for SKU: {}", item.getSkuCode(), e);
-            }
-        });
-
-        order.setStatus(OrderStatus.CANCELLED);
-        Order saved = orderRepository.save(order);
+        OrderResponse cancelled = null;
+        while (cancelled == null) {
+            cancelled = transactionTemplate.execute(tx -> {
+                Order order = orderRepository.findByOrderNumber(orderNumber)
+                        .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
+                requireCancellable(order.getStatus());
+                // Conditional, so a concurrent status change is re-read rather than overwritten
+                if (orderRepository.transition(orderNumber, order.getStatus(), OrderStatus.CANCELLED) == 0) {
+                    return null;
+                }
+                return mapToResponse(orderRepository.findByOrderNumber(orderNumber).orElseThrow());
+            });
+        }
         log.info("Order cancelled: {}", orderNumber);
-        return mapToResponse(saved);
+        return cancelled;
+    }
+
+    private static void requireCancellable(OrderStatus status) {
+        if (status == OrderStatus.SHIPPED || status == OrderStatus.DELIVERED) {
+            throw new BadRequestException("Cannot cancel order in status: " + status);
+        }
     }
 
-    @Transactional
+    /**
+     * Confirming a pending order deducts its held stock first, outside any transaction. The
+     * deduction is idempotent, so if the status update then fails, repeating the call is safe.
+     */
     public OrderResponse updateOrderStatus(String orderNumber, OrderStatus status) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
-        order.setStatus(status);
-        Order saved = orderRepository.save(order);
+        if (status == OrderStatus.CONFIRMED) {
+            Order order = orderRepository.findByOrderNumber(orderNumber)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
+            if (order.getStatus() == OrderStatus.PENDING) {
+                confirmStock(orderNumber);
+            } else if (order.getStatus() != OrderStatus.CONFIRMED) {
+                throw new BadRequestException("Cannot confirm order in status: " + order.getStatus());
+            }
+        }
+        OrderResponse response = transactionTemplate.execute(tx -> {
+            Order order = orderRepository.findByOrderNumber(orderNumber)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
+            order.setStatus(status);
+            return mapToResponse(orderRepository.save(order));
+        });
         log.info("Order {} status updated to: {}", orderNumber, status);
-        return mapToResponse(saved);
+        return response;
     }
 
+    @Transactional(readOnly = true)
     public OrderResponse getOrder(String orderNumber) {
         Order order = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "orderNumber", orderNumber));
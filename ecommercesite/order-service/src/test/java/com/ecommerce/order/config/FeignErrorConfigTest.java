@@ -0,0 +1,60 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ConflictException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Feign Error Decoder Tests")
+class FeignErrorConfigTest {
+
+    private final ErrorDecoder decoder = new FeignErrorConfig().errorDecoder(new ObjectMapper());
+
+    @Test
+    @DisplayName("A 409 becomes a ConflictException carrying the service's message")
+    void decode_Conflict() {
+        Exception decoded = decoder.decode("InventoryClient#reserveBatch",
+                response(409, "{\"status\":409,\"message\":\"Insufficient stock for: SKU-1 (requested 2, available 1)\"}"));
+
+        assertThat(decoded).isInstanceOf(ConflictException.class)
+                .hasMessage("Insufficient stock for: SKU-1 (requested 2, available 1)");
+    }
+
+    @Test
+    @DisplayName("A 400 without an error body becomes a BadRequestException naming the status")
+    void decode_BadRequestWithoutBody() {
+        Exception decoded = decoder.decode("PaymentClient#initiatePayment", response(400, null));
+
+        assertThat(decoded).isInstanceOf(BadRequestException.class).hasMessageContaining("400");
+    }
+
+    @Test
+    @DisplayName("Other statuses decode as Feign exceptions")
+    void decode_ServerError() {
+        assertThat(decoder.decode("InventoryClient#reserveBatch", response(503, null)))
+                .isInstanceOf(FeignException.ServiceUnavailable.class);
+    }
+
+    private static Response response(int status, String body) {
+        Response.Builder builder = Response.builder()
+                .status(status)
+                .reason("reason")
+                .headers(Map.of())
+                .request(Request.create(Request.HttpMethod.POST, "http://inventory-service/api/inventory/reserve-batch",
+                        Map.of(), null, StandardCharsets.UTF_8, null));
+        if (body != null) {
+            builder.body(body, StandardCharsets.UTF_8);
+        }
+        return builder.build();
+    }
+}
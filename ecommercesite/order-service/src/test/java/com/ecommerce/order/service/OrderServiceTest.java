@@ -0,0 +1,277 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.exception.ConflictException;
+import com.ecommerce.common.exception.ServiceUnavailableException;
+import com.ecommerce.order.client.InventoryClient;
+import com.ecommerce.order.client.PaymentClient;
+import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.entity.Order;
+import com.ecommerce.order.entity.OrderLineItem;
+import com.ecommerce.order.entity.OrderStatus;
+import com.ecommerce.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Service Unit Tests")
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private InventoryClient inventoryClient;
+
+    @Mock
+    private PaymentClient paymentClient;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // Both executors run tasks inline, so a submitted saga has finished when submitOrder returns
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private OrderService orderService;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, productClient, inventoryClient, paymentClient,
+                transactionTemplate, executor, executor, Duration.ofSeconds(2), Duration.ofMinutes(5), Duration.ofMinutes(15));
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        lenient().when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            order = invocation.getArgument(0);
+            order.setId(1L);
+            return order;
+        });
+        lenient().when(orderRepository.findByOrderNumber(anyString())).thenAnswer(invocation -> Optional.ofNullable(order));
+        lenient().when(orderRepository.transition(anyString(), any(), any())).thenReturn(1);
+        lenient().when(productClient.getProductBySkuCode("SKU-1"))
+                .thenReturn(ApiResponse.success(new ProductClient.ProductDto(1L, "Widget", new BigDecimal("10.00"), "SKU-1", "Tools")));
+        lenient().when(inventoryClient.reserveBatch(any()))
+                .thenReturn(ApiResponse.success(new InventoryClient.BatchReservationResult(true, List.of())));
+        lenient().when(inventoryClient.releaseOrder(anyString())).thenReturn(ApiResponse.success(null));
+        lenient().when(inventoryClient.confirmOrder(anyString())).thenReturn(ApiResponse.success(null));
+    }
+
+    @Test
+    @DisplayName("Checkout leaves the order pending, stock held, when the payment outcome is unknown")
+    void checkout_PaymentOutcomeUnknown_DoesNotCompensate() {
+        when(paymentClient.initiatePayment(anyString(), any()))
+                .thenReturn(ApiResponse.error("Payment service is currently unavailable"));
+
+        orderService.submitOrder(orderRequest(), "user-1");
+
+        verify(paymentClient).initiatePayment(eq("order-" + order.getOrderNumber()), any());
+        verify(inventoryClient, never()).releaseOrder(anyString());
+        verify(orderRepository, never()).transition(anyString(), any(), eq(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Checkout leaves the order pending while the payment is still processing")
+    void checkout_PaymentProcessing_DoesNotCompensate() {
+        when(paymentClient.initiatePayment(anyString(), any())).thenReturn(ApiResponse.success(
+                new PaymentClient.PaymentDto(1L, "x", new BigDecimal("20.00"), "PROCESSING", "TXN-1")));
+
+        orderService.submitOrder(orderRequest(), "user-1");
+
+        verify(inventoryClient, never()).releaseOrder(anyString());
+        verify(paymentClient, never()).refundPayment(anyString());
+        verify(orderRepository, never()).transition(anyString(), any(), eq(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Checkout compensates when payment-service rejects the payment")
+    void checkout_PaymentRejected_Compensates() {
+        when(paymentClient.initiatePayment(anyString(), any())).thenThrow(new BadRequestException("Payment rejected"));
+
+        orderService.submitOrder(orderRequest(), "user-1");
+
+        verify(inventoryClient).releaseOrder(order.getOrderNumber());
+        verify(orderRepository).transition(order.getOrderNumber(), OrderStatus.PENDING, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Checkout compensates when the payment definitely failed")
+    void checkout_PaymentFailed_Compensates() {
+        when(paymentClient.initiatePayment(anyString(), any())).thenReturn(ApiResponse.success(
+                new PaymentClient.PaymentDto(1L, "x", new BigDecimal("20.00"), "FAILED", "TXN-1")));
+
+        orderService.submitOrder(orderRequest(), "user-1");
+
+        verify(paymentClient, never()).refundPayment(anyString());
+        verify(inventoryClient).releaseOrder(order.getOrderNumber());
+        verify(orderRepository).transition(order.getOrderNumber(), OrderStatus.PENDING, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("A resumed checkout retries the payment with the stored prices and the same key")
+    void resumeStalledCheckouts_PricedOrder_ReusesStoredPrices() {
+        order = Order.builder()
+                .id(7L)
+                .orderNumber("ORD-STALLED")
+                .userId("user-1")
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("20.00"))
+                .asyncCheckout(true)
+                .updatedAt(LocalDateTime.now().minusMinutes(10))
+                .build();
+        order.addLineItem(OrderLineItem.builder()
+                .skuCode("SKU-1").quantity(2).price(new BigDecimal("10.00")).subtotal(new BigDecimal("20.00")).build());
+        when(orderRepository.findByStatusAndAsyncCheckoutTrueAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(), any(Limit.class)))
+                .thenReturn(List.of(order));
+        when(orderRepository.claim(eq(7L), any())).thenReturn(1);
+        when(paymentClient.initiatePayment(anyString(), any())).thenReturn(ApiResponse.success(
+                new PaymentClient.PaymentDto(1L, "ORD-STALLED", new BigDecimal("20.00"), "COMPLETED", "TXN-1")));
+
+        orderService.resumeStalledCheckouts();
+
+        verifyNoInteractions(productClient);
+        verify(paymentClient).initiatePayment("order-ORD-STALLED",
+                new PaymentClient.PaymentRequest("ORD-STALLED", new BigDecimal("20.00"), null));
+        verify(orderRepository).transition("ORD-STALLED", OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        verify(inventoryClient).confirmOrder("ORD-STALLED");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    @DisplayName("A synchronous order holds its stock for longer than it may stay unconfirmed")
+    void createOrder_HoldsStockPastConfirmTimeout() {
+        orderService.createOrder(orderRequest(), "user-1", "ORD-SYNC");
+
+        verify(inventoryClient).reserveBatch(argThat(request ->
+                request.orderNumber().equals(order.getOrderNumber()) && request.holdSeconds() == 1800L));
+    }
+
+    @Test
+    @DisplayName("A batch inventory-service cannot reserve fails the order with its shortfalls")
+    void createOrder_InsufficientStock_Rejected() {
+        when(inventoryClient.reserveBatch(any()))
+                .thenThrow(new ConflictException("Insufficient stock for: SKU-1 (requested 2, available 1)"));
+
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest(), "user-1", "ORD-SHORT"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("SKU-1 (requested 2, available 1)");
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Unconfirmed synchronous orders are cancelled and their stock released")
+    void cancelUnconfirmedOrders_StaleOrder_CancelsAndReleases() {
+        order = Order.builder()
+                .orderNumber("ORD-STALE")
+                .status(OrderStatus.PENDING)
+                .updatedAt(LocalDateTime.now().minusMinutes(20))
+                .build();
+        when(orderRepository.findByStatusAndAsyncCheckoutFalseAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(), any(Limit.class)))
+                .thenReturn(List.of(order));
+
+        orderService.cancelUnconfirmedOrders();
+
+        verify(orderRepository).transition("ORD-STALE", OrderStatus.PENDING, OrderStatus.CANCELLED);
+        verify(inventoryClient).releaseOrder("ORD-STALE");
+    }
+
+    @Test
+    @DisplayName("An order confirmed meanwhile is not cancelled by the sweep")
+    void cancelUnconfirmedOrders_ConfirmedMeanwhile_LeavesStock() {
+        order = Order.builder().orderNumber("ORD-RACE").status(OrderStatus.PENDING).build();
+        when(orderRepository.findByStatusAndAsyncCheckoutFalseAndUpdatedAtBefore(eq(OrderStatus.PENDING), any(), any(Limit.class)))
+                .thenReturn(List.of(order));
+        when(orderRepository.transition("ORD-RACE", OrderStatus.PENDING, OrderStatus.CANCELLED)).thenReturn(0);
+
+        orderService.cancelUnconfirmedOrders();
+
+        verify(inventoryClient, never()).releaseOrder(anyString());
+    }
+
+    @Test
+    @DisplayName("Confirming a cancelled order is rejected without touching stock")
+    void updateOrderStatus_CancelledOrder_Rejected() {
+        order = Order.builder().orderNumber("ORD-GONE").status(OrderStatus.CANCELLED).build();
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus("ORD-GONE", OrderStatus.CONFIRMED))
+                .isInstanceOf(BadRequestException.class);
+        verify(inventoryClient, never()).confirmOrder(anyString());
+    }
+
+    @Test
+    @DisplayName("Cancelling releases the stock before the order is cancelled")
+    void cancelOrder_ReleasesBeforeCancelling() {
+        order = Order.builder().orderNumber("ORD-CANCEL").status(OrderStatus.PENDING).build();
+
+        orderService.cancelOrder("ORD-CANCEL");
+
+        InOrder inOrder = inOrder(inventoryClient, orderRepository);
+        inOrder.verify(inventoryClient).releaseOrder("ORD-CANCEL");
+        inOrder.verify(orderRepository).transition("ORD-CANCEL", OrderStatus.PENDING, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("A failed release leaves the order uncancelled and fails with 503")
+    void cancelOrder_ReleaseFails_OrderKeepsStatus() {
+        order = Order.builder().orderNumber("ORD-KEEP").status(OrderStatus.PENDING).build();
+        when(inventoryClient.releaseOrder("ORD-KEEP")).thenReturn(ApiResponse.error("Inventory service is currently unavailable"));
+
+        assertThatThrownBy(() -> orderService.cancelOrder("ORD-KEEP"))
+                .isInstanceOf(ServiceUnavailableException.class);
+        verify(orderRepository, never()).transition(anyString(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Shipped orders cannot be cancelled and keep their stock")
+    void cancelOrder_Shipped_Rejected() {
+        order = Order.builder().orderNumber("ORD-SHIPPED").status(OrderStatus.SHIPPED).build();
+
+        assertThatThrownBy(() -> orderService.cancelOrder("ORD-SHIPPED"))
+                .isInstanceOf(BadRequestException.class);
+        verify(inventoryClient, never()).releaseOrder(anyString());
+    }
+
+    private static OrderRequest orderRequest() {
+        return new OrderRequest(List.of(new OrderRequest.OrderItemRequest("SKU-1", 2)), "1 Main St");
+    }
+}
@@ -1,10 +1,14 @@
 package com.ecommerce.payment;
 
+import com.ecommerce.common.idempotency.EnableIdempotency;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@EnableIdempotency
 @ComponentScan(basePackages = {"com.ecommerce.payment", "com.ecommerce.common"})
 public class PaymentServiceApplication {
 
@@ -1,6 +1,8 @@
 package com.ecommerce.payment.controller;
 
 import com.ecommerce.common.dto.ApiResponse;
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.idempotency.IdempotencyService;
 import com.ecommerce.payment.dto.PaymentRequest;
 import com.ecommerce.payment.dto.PaymentResponse;
 import com.ecommerce.payment.service.PaymentService;
@@ -21,14 +23,23 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/initiate")
-    @Operation(summary = "Initiate a payment")
+    @Operation(summary = "Initiate a payment",
+            description = "Requires an Idempotency-Key header, so a retried request never charges twice")
     public ResponseEntity<ApiResponse<PaymentResponse>> initiatePayment(
-            @Valid @RequestBody PaymentRequest request) {
-        PaymentResponse response = paymentService.initiatePayment(request);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Payment initiated", response));
+            @Valid @RequestBody PaymentRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        // Checked here rather than by required=true, which would surface as a 500
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            throw new BadRequestException(IdempotencyService.HEADER + " header is required");
+        }
+        return idempotencyService.execute(idempotencyKey, request, PaymentResponse.class, () -> {
+            PaymentResponse response = paymentService.initiatePayment(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Payment initiated", response));
+        });
     }
 
     @GetMapping("/status/{transactionId}")
@@ -0,0 +1,50 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.entity.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Brings {@code product_seq} in line with databases created when product IDs were IDENTITY
+ * columns: creates the sequence if the schema tool did not, and restarts it past the highest
+ * existing ID if it is behind. Runs once the entity manager factory (and any schema update)
+ * is up, before the service takes traffic.
+ *
+ * <p>Hibernate's pooled optimizer hands out the block of {@link Product#ID_ALLOCATION_SIZE}
+ * IDs ending at each sequence value, so the sequence must stay a whole block ahead of
+ * {@code max(id)}. Only the first start after the switch restarts it; run that one alone.
+ */
+@Component
+@Slf4j
+public class ProductSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public ProductSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    public void initialize() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        long start = (maxId == null ? 0 : maxId) + Product.ID_ALLOCATION_SIZE + 1;
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + Product.ID_SEQUENCE
+                + " START WITH " + start + " INCREMENT BY " + Product.ID_ALLOCATION_SIZE);
+        if (maxId == null) {
+            return;
+        }
+        Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(Product.ID_SEQUENCE), Long.class);
+        if (next - Product.ID_ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + Product.ID_SEQUENCE + " RESTART WITH " + start);
+            log.info("Restarted {} at {}; it was behind existing product ID {}", Product.ID_SEQUENCE, start, maxId);
+        }
+    }
+}
@@ -2,18 +2,40 @@ package com.ecommerce.product.controller;
 
 import com.ecommerce.common.dto.ApiResponse;
 import com.ecommerce.common.dto.PagedResponse;
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.common.web.ETags;
+import com.ecommerce.product.dto.ProductChangesResponse;
+import com.ecommerce.product.dto.ProductImportResult;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
+import com.ecommerce.product.dto.ProductSummary;
+import com.ecommerce.product.dto.ProductVersion;
+import com.ecommerce.product.service.ProductChangeService;
+import com.ecommerce.product.service.ProductExportService;
+import com.ecommerce.product.service.ProductImportService;
+import com.ecommerce.product.service.ProductSearchIndex;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.service.ProductSuggestIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
@@ -22,6 +44,11 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductChangeService productChangeService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product with the provided details")
@@ -40,38 +67,150 @@ public class ProductController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found")
     })
     public ResponseEntity<ApiResponse<ProductResponse>> getProductById(
-            @Parameter(description = "Product ID") @PathVariable Long id) {
-        ProductResponse response = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success(response));
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        return ETags.conditionalOnVersion(webRequest,
+                () -> productService.getProductVersionById(id).map(ProductController::etag),
+                () -> {
+                    ProductResponse response = productService.getProductById(id);
+                    return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
+                });
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs",
+            description = "Returns the products that exist for the given IDs, in request order")
+    public ResponseEntity<ApiResponse<List<ProductResponse>>> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs") @RequestParam List<Long> ids,
+            WebRequest webRequest) {
+        return ETags.conditionalOnVersion(webRequest,
+                () -> Optional.of(ETags.weak(productService.getProductVersionsByIds(ids).stream()
+                        .map(ProductController::etag)
+                        .toList())),
+                () -> {
+                    List<ProductResponse> response = productService.getProductsByIds(ids);
+                    return ETags.conditional(webRequest,
+                            ETags.weak(response.stream().map(ProductController::etag).toList()),
+                            () -> ApiResponse.success(response));
+                });
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Export active products",
+            description = "Streams every active product as newline-delimited JSON, gzip-compressed when accepted")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Only export this category") @RequestParam(required = false) String category,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192)) {
+                    productExportService.exportActiveProducts(category, compressed);
+                }
+            } else {
+                productExportService.exportActiveProducts(category, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import products",
+            description = "Imports products from CSV (with a header row) or NDJSON and reports per-row errors")
+    public ResponseEntity<ApiResponse<ProductImportResult>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ProductImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        ProductImportResult result = productImportService.importProducts(body, format);
+        return ResponseEntity.ok(ApiResponse.success(
+                result.getFailed() == 0 ? "Import completed" : "Import completed with errors", result));
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get product changes since a watermark",
+            description = "Returns products created, updated or deactivated after the watermark, oldest first, "
+                    + "with the watermark to pass next time. Omit since for a full initial sync.")
+    public ResponseEntity<ApiResponse<ProductChangesResponse>> getChanges(
+            @Parameter(description = "nextWatermark from the previous call") @RequestParam(defaultValue = "") String since,
+            @Parameter(description = "At most 1000") @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(productChangeService.getChangesSince(since, limit)));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search products",
+            description = "Full-text search over active products' name, category and description, ranked by relevance")
+    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> searchProducts(
+            @Parameter(description = "Search terms; all must match") @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "At most 100") @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > ProductSearchIndex.MAX_PAGE_SIZE) {
+            throw new BadRequestException("page must be at least 0 and size between 1 and " + ProductSearchIndex.MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(ApiResponse.success(productSearchIndex.search(q, page, size)));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products",
+            description = "Autocompletes active product names and SKU codes by prefix, most viewed first")
+    public ResponseEntity<ApiResponse<List<ProductSuggestion>>> suggestProducts(
+            @Parameter(description = "Typed prefix, case-insensitive") @RequestParam String prefix,
+            @Parameter(description = "At most 10") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(productSuggestIndex.suggest(prefix, limit)));
     }
 
     @GetMapping("/sku/{skuCode}")
     @Operation(summary = "Get product by SKU code")
     public ResponseEntity<ApiResponse<ProductResponse>> getProductBySkuCode(
-            @Parameter(description = "SKU Code") @PathVariable String skuCode) {
-        ProductResponse response = productService.getProductBySkuCode(skuCode);
-        return ResponseEntity.ok(ApiResponse.success(response));
+            @Parameter(description = "SKU Code") @PathVariable String skuCode,
+            WebRequest webRequest) {
+        return ETags.conditionalOnVersion(webRequest,
+                () -> productService.getProductVersionBySkuCode(skuCode).map(ProductController::etag),
+                () -> {
+                    ProductResponse response = productService.getProductBySkuCode(skuCode);
+                    return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
+                });
     }
 
     @GetMapping
-    @Operation(summary = "Get all products", description = "Returns paginated list of active products")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> getAllProducts(
+    @Operation(summary = "Get all products",
+            description = "Returns paginated summaries (no description) of active products; pass after= for "
+                    + "cursor pagination and fields= to select properties")
+    public ResponseEntity<ApiResponse<PagedResponse<ProductSummary>>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String direction) {
-        PagedResponse<ProductResponse> response = productService.getAllProducts(page, size, sortBy, direction);
-        return ResponseEntity.ok(ApiResponse.success(response));
+            @RequestParam(defaultValue = "desc") String direction,
+            @Parameter(description = "Cursor from the previous page's nextCursor; empty for the first page")
+            @RequestParam(required = false) String after,
+            WebRequest webRequest) {
+        PagedResponse<ProductSummary> response = after != null
+                ? productService.scrollProducts(after, cursorPageSize(size), sortBy, direction)
+                : productService.getAllProducts(page, size, sortBy, direction);
+        return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
     }
 
     @GetMapping("/category/{category}")
-    @Operation(summary = "Get products by category")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> getProductsByCategory(
+    @Operation(summary = "Get products by category",
+            description = "Returns paginated summaries (no description); pass fields= to select properties")
+    public ResponseEntity<ApiResponse<PagedResponse<ProductSummary>>> getProductsByCategory(
             @PathVariable String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        PagedResponse<ProductResponse> response = productService.getProductsByCategory(category, page, size);
-        return ResponseEntity.ok(ApiResponse.success(response));
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor from the previous page's nextCursor; empty for the first page")
+            @RequestParam(required = false) String after,
+            WebRequest webRequest) {
+        PagedResponse<ProductSummary> response = after != null
+                ? productService.scrollProductsByCategory(category, after, cursorPageSize(size))
+                : productService.getProductsByCategory(category, page, size);
+        return ETags.conditional(webRequest, etag(response), () -> ApiResponse.success(response));
     }
 
     @PutMapping("/{id}")
@@ -89,4 +228,29 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.ok(ApiResponse.success("Product deleted successfully", null));
     }
+
+    // A cursor page is one LIMIT query, so it gets the same bound as a search page
+    private static int cursorPageSize(int size) {
+        if (size < 1 || size > ProductSearchIndex.MAX_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + ProductSearchIndex.MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    private static String etag(ProductResponse product) {
+        return ETags.strong(product.getId(), product.getUpdatedAt());
+    }
+
+    private static String etag(ProductVersion version) {
+        return ETags.strong(version.id(), version.updatedAt());
+    }
+
+    // The URL (including fields=) already separates representations, so only content counts.
+    // A page's tag needs its rows, so unlike single products it is derived after loading them;
+    // the summary query is already a narrow projection.
+    private static String etag(PagedResponse<ProductSummary> page) {
+        return ETags.weak(page.getTotalElements(), page.getNextCursor(), page.getContent().stream()
+                .map(summary -> summary.getId() + "@" + summary.getUpdatedAt())
+                .toList());
+    }
 }
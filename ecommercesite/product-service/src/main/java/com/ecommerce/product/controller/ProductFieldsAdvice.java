@@ -0,0 +1,43 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.dto.ProductSummary;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the {@code fields=} request parameter (comma-separated property names) to every
+ * {@link ProductSummary} in a product response. Without it, all properties are written.
+ */
+@RestControllerAdvice(assignableTypes = ProductController.class)
+public class ProductFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        String fields = request instanceof ServletServerHttpRequest servletRequest
+                ? servletRequest.getServletRequest().getParameter("fields")
+                : null;
+        SimpleBeanPropertyFilter filter = SimpleBeanPropertyFilter.serializeAll();
+        if (fields != null && !fields.isBlank()) {
+            Set<String> properties = Arrays.stream(fields.split(","))
+                    .map(String::trim)
+                    .filter(property -> !property.isEmpty())
+                    .collect(Collectors.toSet());
+            filter = SimpleBeanPropertyFilter.filterOutAllExcept(properties);
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider().addFilter(ProductSummary.FIELDS_FILTER, filter));
+    }
+}
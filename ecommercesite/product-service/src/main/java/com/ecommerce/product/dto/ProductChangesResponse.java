@@ -0,0 +1,22 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangesResponse {
+
+    /** Products created, updated or deactivated after the watermark, oldest change first. */
+    private List<ProductResponse> changes;
+    /** Pass as {@code since} on the next call; unchanged when there were no changes. */
+    private String nextWatermark;
+    /** True when more changes are ready now; call again without waiting. */
+    private boolean hasMore;
+}
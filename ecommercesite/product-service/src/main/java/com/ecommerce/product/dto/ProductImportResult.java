@@ -0,0 +1,31 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResult {
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+    /** Details for at most {@code ProductImportService.MAX_ERRORS} failures; {@code failed} counts them all. */
+    private List<RowError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int line;
+        private String skuCode;
+        private String message;
+    }
+}
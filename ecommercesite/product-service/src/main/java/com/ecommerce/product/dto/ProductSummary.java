@@ -0,0 +1,35 @@
+package com.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection of a product for list endpoints. Queries returning it select only these
+ * columns (no description) and build no entities, so nothing lands in the persistence context.
+ * Callers can narrow the serialized properties with {@code fields=}.
+ */
+@JsonFilter(ProductSummary.FIELDS_FILTER)
+public interface ProductSummary {
+
+    String FIELDS_FILTER = "productSummaryFields";
+
+    Long getId();
+
+    String getName();
+
+    BigDecimal getPrice();
+
+    String getSkuCode();
+
+    String getCategory();
+
+    String getImageUrl();
+
+    boolean isActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.product.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's identity and last-modified time: all a conditional GET needs to tell whether the
+ * client's copy is current. Queries returning it select just these two columns.
+ */
+public record ProductVersion(Long id, LocalDateTime updatedAt) {
+}
@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "products", indexes = {
         @Index(name = "idx_product_sku", columnList = "skuCode", unique = true),
-        @Index(name = "idx_product_category", columnList = "category")
+        @Index(name = "idx_product_category", columnList = "category"),
+        @Index(name = "idx_product_active_created", columnList = "active, createdAt, id"),
+        @Index(name = "idx_product_category_name", columnList = "category, name, id"),
+        @Index(name = "idx_product_updated", columnList = "updatedAt, id")
 })
 @Data
 @Builder
@@ -22,8 +25,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Product {
 
+    public static final String ID_SEQUENCE = "product_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence IDs (pre-allocated in blocks) let Hibernate batch inserts; IDENTITY cannot.
+    // ProductSequenceInitializer keeps the sequence ahead of IDs from before the switch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 200)
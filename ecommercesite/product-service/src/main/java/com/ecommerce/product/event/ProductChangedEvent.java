@@ -0,0 +1,13 @@
+package com.ecommerce.product.event;
+
+import com.ecommerce.product.dto.ProductResponse;
+
+/**
+ * Published inside the writing transaction whenever a product is created, updated or
+ * deactivated; carries the product's state as of that write. {@link
+ * com.ecommerce.product.service.ProductChangeFollower} republishes changes read from the change
+ * feed, outside any transaction, so listeners must also accept events for products they have
+ * already seen.
+ */
+public record ProductChangedEvent(ProductResponse product) {
+}
@@ -1,21 +1,58 @@
 package com.ecommerce.product.repository;
 
+import com.ecommerce.product.dto.ProductSummary;
+import com.ecommerce.product.dto.ProductVersion;
 import com.ecommerce.product.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findBySkuCode(String skuCode);
 
-    Page<Product> findByCategory(String category, Pageable pageable);
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
 
-    Page<Product> findByActiveTrue(Pageable pageable);
+    Window<Product> findByUpdatedAtLessThanEqual(LocalDateTime upTo, ScrollPosition position, Sort sort, Limit limit);
+
+    Page<ProductSummary> findSummariesByActiveTrue(Pageable pageable);
+
+    Page<ProductSummary> findSummariesByCategory(String category, Pageable pageable);
+
+    Window<ProductSummary> findSummariesByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<ProductSummary> findSummariesByCategory(String category, ScrollPosition position, Sort sort, Limit limit);
+
+    Optional<ProductVersion> findVersionById(Long id);
+
+    Optional<ProductVersion> findVersionBySkuCode(String skuCode);
+
+    List<ProductVersion> findVersionsByIdIn(Collection<Long> ids);
 
     boolean existsBySkuCode(String skuCode);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.skuCode FROM Product p")
+    Stream<String> streamAllSkuCodes();
+
+    @Query("SELECT p.skuCode FROM Product p WHERE p.skuCode IN :skuCodes")
+    Set<String> findSkuCodesIn(@Param("skuCodes") Collection<String> skuCodes);
 }
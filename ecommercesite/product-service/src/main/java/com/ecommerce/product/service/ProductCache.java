@@ -0,0 +1,95 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of product responses keyed by ID and by SKU. Concurrent misses on the
+ * same key wait for a single load. Writers evict on commit, so a reader cannot repopulate an
+ * entry from the pre-commit row, and other nodes' writes are evicted as
+ * {@link ProductChangeFollower} replays them; the TTL bounds staleness from any other path.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final Cache<Long, ProductResponse> byId;
+    private final Cache<String, ProductResponse> bySku;
+
+    public ProductCache(@Value("${product.cache.max-size:10000}") long maxSize,
+                        @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this.byId = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.bySku = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    public ProductResponse getById(Long id, Function<Long, ProductResponse> loader) {
+        return byId.get(id, loader);
+    }
+
+    public ProductResponse getBySkuCode(String skuCode, Function<String, ProductResponse> loader) {
+        return bySku.get(skuCode, loader);
+    }
+
+    /** The cached product, or null without loading it. */
+    public ProductResponse peekById(Long id) {
+        return byId.getIfPresent(id);
+    }
+
+    public ProductResponse peekBySkuCode(String skuCode) {
+        return bySku.getIfPresent(skuCode);
+    }
+
+    /**
+     * Evicts the product under its ID and every given SKU, now and again once the current
+     * transaction commits.
+     */
+    public void evict(Long id, String... skuCodes) {
+        Runnable eviction = () -> invalidate(id, skuCodes);
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts every change this node hears of, including other nodes' writes replayed by the
+     * follower. A followed change carries only the new SKU, so a renamed product's old SKU
+     * entry is dropped when the ID entry still shows it and otherwise lives out its TTL.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        ProductResponse cached = byId.getIfPresent(product.getId());
+        invalidate(product.getId(), product.getSkuCode(), cached != null ? cached.getSkuCode() : null);
+    }
+
+    private void invalidate(Long id, String... skuCodes) {
+        byId.invalidate(id);
+        Stream.of(skuCodes).filter(Objects::nonNull).forEach(bySku::invalidate);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "products.by-id");
+        CaffeineCacheMetrics.monitor(registry, bySku, "products.by-sku");
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductChangesResponse;
+import com.ecommerce.product.event.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tails the change feed and republishes each change as a {@link ProductChangedEvent}, so this
+ * node's in-memory structures (SKU filter, search and suggest indexes) pick up writes made on
+ * other nodes. The watermark starts when this bean is created, before those structures load
+ * from the database; changes this node made itself come round again and are applied twice,
+ * which is harmless.
+ *
+ * <p>Another node's write reaches this node after at most the follow interval plus the feed's
+ * safety lag.
+ */
+@Component
+@Slf4j
+public class ProductChangeFollower {
+
+    private final ProductChangeService productChangeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private String watermark;
+
+    public ProductChangeFollower(ProductChangeService productChangeService, ApplicationEventPublisher eventPublisher) {
+        this.productChangeService = productChangeService;
+        this.eventPublisher = eventPublisher;
+        this.watermark = productChangeService.watermarkNow();
+    }
+
+    @Scheduled(fixedDelayString = "${product.changes.follow-interval-ms:5000}",
+            initialDelayString = "${product.changes.follow-interval-ms:5000}")
+    public synchronized void follow() {
+        int applied = 0;
+        ProductChangesResponse page;
+        do {
+            page = productChangeService.getChangesSince(watermark, ProductChangeService.MAX_CHANGES);
+            page.getChanges().forEach(product -> eventPublisher.publishEvent(new ProductChangedEvent(product)));
+            applied += page.getChanges().size();
+            watermark = page.getNextWatermark();
+        } while (page.isHasMore());
+        if (applied > 0) {
+            log.debug("Applied {} product changes from the change feed", applied);
+        }
+    }
+}
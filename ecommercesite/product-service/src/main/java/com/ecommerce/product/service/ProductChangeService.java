@@ -0,0 +1,65 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductChangesResponse;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.ecommerce.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Change feed over products ordered by {@code (updatedAt, id)}. Soft deletes show up as
+ * changes with {@code active=false}, so a consumer can apply the feed to its own copy.
+ *
+ * <p>Rows stamped within the last {@code product.changes.safety-lag} are held back: a slower
+ * transaction may still commit a row with an earlier {@code updatedAt}, and a watermark that
+ * had already moved past it would skip it for good.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class ProductChangeService {
+
+    public static final int MAX_CHANGES = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final Duration safetyLag;
+
+    public ProductChangeService(ProductRepository productRepository,
+                                ProductMapper productMapper,
+                                @Value("${product.changes.safety-lag:5s}") Duration safetyLag) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.safetyLag = safetyLag;
+    }
+
+    public ProductChangesResponse getChangesSince(String since, int limit) {
+        ProductCursor watermark = ProductCursor.watermark(since);
+        LocalDateTime upTo = LocalDateTime.now().minus(safetyLag);
+        Window<Product> window = productRepository.findByUpdatedAtLessThanEqual(
+                upTo, watermark.position(), watermark.sort(), Limit.of(Math.max(1, Math.min(limit, MAX_CHANGES))));
+        log.debug("Serving {} product changes since '{}'", window.size(), since);
+
+        return ProductChangesResponse.builder()
+                .changes(productMapper.toResponseList(window.getContent()))
+                .nextWatermark(window.isEmpty() ? since : watermark.next(window.positionAt(window.size() - 1)))
+                .hasMore(window.hasNext())
+                .build();
+    }
+
+    /**
+     * A watermark for a consumer whose copy was loaded from the database just now: it starts a
+     * safety lag back, so a slow commit stamped before the load still shows up.
+     */
+    public String watermarkNow() {
+        return ProductCursor.watermarkAt(LocalDateTime.now().minus(safetyLag));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque keyset cursor over products: the sort property and direction plus the sort value
+ * and ID of the last row served. Encoded as URL-safe Base64 of
+ * {@code sortBy|direction|id|value}; the value goes last because it may contain the separator.
+ */
+final class ProductCursor {
+
+    /** Non-null columns only; keyset predicates cannot page over NULLs. */
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price", "skuCode", "createdAt", "updatedAt");
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Object value;
+    private final Long id;
+
+    private ProductCursor(String sortBy, Sort.Direction direction, Object value, Long id) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    static ProductCursor first(String sortBy, String direction) {
+        if (!SORTABLE.contains(sortBy)) {
+            throw new BadRequestException("Cursor pagination can sort by one of " + SORTABLE);
+        }
+        return new ProductCursor(sortBy, Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC),
+                null, null);
+    }
+
+    static ProductCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 4);
+            ProductCursor first = first(parts[0], parts[1]);
+            Long id = Long.valueOf(parts[2]);
+            return new ProductCursor(first.sortBy, first.direction, parse(first.sortBy, parts[3]), id);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Decodes a change-feed watermark, which is a cursor ascending by {@code updatedAt};
+     * empty means the beginning of time.
+     */
+    static ProductCursor watermark(String since) {
+        ProductCursor cursor = since.isEmpty() ? first("updatedAt", "asc") : decode(since);
+        if (!"updatedAt".equals(cursor.sortBy) || cursor.direction != Sort.Direction.ASC) {
+            throw new BadRequestException("Invalid watermark");
+        }
+        return cursor;
+    }
+
+    /** A change-feed watermark that resumes with the first change stamped at or after {@code time}. */
+    static String watermarkAt(LocalDateTime time) {
+        String encoded = "updatedAt|" + Sort.Direction.ASC + "|0|" + time;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Sort sort() {
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    ScrollPosition position() {
+        if (id == null) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortBy, value);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * The cursor that resumes after the given position, as reported by the previous window.
+     */
+    String next(ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        Object nextValue = keys.get(sortBy);
+        String encoded = sortBy + "|" + direction + "|" + keys.get("id") + "|" + nextValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object parse(String sortBy, String value) {
+        return switch (sortBy) {
+            case "id" -> Long.valueOf(value);
+            case "price" -> new BigDecimal(value);
+            case "createdAt", "updatedAt" -> LocalDateTime.parse(value);
+            default -> value;
+        };
+    }
+}
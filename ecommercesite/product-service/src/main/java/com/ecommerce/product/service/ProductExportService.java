@@ -0,0 +1,81 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams the active catalog as NDJSON. Rows come from a forward-only cursor on a
+ * {@link StatelessSession} inside one read transaction, so nothing is retained in a persistence
+ * context or in the JDBC driver and memory stays flat regardless of catalog size.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private final SessionFactory sessionFactory;
+    private final ProductMapper productMapper;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+
+    public ProductExportService(EntityManagerFactory entityManagerFactory,
+                                ProductMapper productMapper,
+                                ObjectMapper objectMapper,
+                                @Value("${product.export.fetch-size:500}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.productMapper = productMapper;
+        this.writer = objectMapper.writer();
+        this.fetchSize = fetchSize;
+    }
+
+    public long exportActiveProducts(String category, OutputStream out) throws IOException {
+        log.info("Exporting active products{}", category != null ? " in category: " + category : "");
+
+        long count = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // PostgreSQL only honours the fetch size with autocommit off; outside a transaction
+            // the driver would buffer the whole result set before the first row is returned
+            Transaction transaction = session.beginTransaction();
+            try {
+                Query<Product> query = session.createQuery(category != null
+                                ? "FROM Product p WHERE p.active = true AND p.category = :category ORDER BY p.id"
+                                : "FROM Product p WHERE p.active = true ORDER BY p.id", Product.class)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                if (category != null) {
+                    query.setParameter("category", category);
+                }
+
+                try (ScrollableResults<Product> rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    while (rows.next()) {
+                        out.write(writer.writeValueAsBytes(productMapper.toResponse(rows.get())));
+                        out.write('\n');
+                        count++;
+                    }
+                }
+                transaction.commit();
+            } finally {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+            }
+        }
+
+        log.info("Exported {} products", count);
+        return count;
+    }
+}
@@ -0,0 +1,299 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.exception.BadRequestException;
+import com.ecommerce.product.dto.ProductImportResult;
+import com.ecommerce.product.dto.ProductRequest;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.ecommerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports products from CSV or NDJSON in fixed-size chunks. Each chunk is validated, checked
+ * for existing SKUs with one {@code IN} query, and inserted in its own transaction as JDBC
+ * batches. If that transaction fails, the chunk is retried one row per transaction so only the
+ * offending rows are lost. A failing row is reported and skipped; it never aborts the rest of
+ * the import. Only the first {@link #MAX_ERRORS} failures are itemised.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    public static final int MAX_ERRORS = 1000;
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "skuCode", "category", "imageUrl");
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductSkuFilter productSkuFilter;
+    private final int chunkSize;
+
+    public ProductImportService(ProductRepository productRepository,
+                                ProductMapper productMapper,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                ProductSkuFilter productSkuFilter,
+                                @Value("${product.import.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.productSkuFilter = productSkuFilter;
+        this.chunkSize = chunkSize;
+    }
+
+    public ProductImportResult importProducts(InputStream input, Format format) throws IOException {
+        log.info("Importing products from {}", format);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        int lineNumber = 0;
+        Map<String, Integer> csvColumns = null;
+        if (format == Format.CSV) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new BadRequestException("CSV import requires a header row");
+            }
+            lineNumber++;
+            csvColumns = csvColumns(header);
+        }
+
+        ImportState state = new ImportState();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.totalRows++;
+            try {
+                ProductRequest request = format == Format.CSV ? parseCsv(line, csvColumns) : parseJson(line);
+                chunk.add(new Row(lineNumber, request));
+            } catch (IllegalArgumentException e) {
+                state.reject(lineNumber, null, e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, state);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, state);
+        }
+
+        log.info("Import finished: {} rows, {} imported, {} failed", state.totalRows, state.imported, state.failed);
+        return ProductImportResult.builder()
+                .totalRows(state.totalRows)
+                .imported(state.imported)
+                .failed(state.failed)
+                .errors(state.errors)
+                .build();
+    }
+
+    private void importChunk(List<Row> chunk, ImportState state) {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        // Duplicates across chunks are caught by the existing-SKU query, as earlier chunks have committed
+        Set<String> seenSkuCodes = new HashSet<>();
+        for (Row row : chunk) {
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                state.reject(row.line(), row.request().getSkuCode(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!seenSkuCodes.add(row.request().getSkuCode())) {
+                state.reject(row.line(), row.request().getSkuCode(), "Duplicate SKU code in import");
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = productRepository.findSkuCodesIn(valid.stream()
+                .map(row -> row.request().getSkuCode())
+                .toList());
+        List<Row> inserts = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            if (existing.contains(row.request().getSkuCode())) {
+                state.reject(row.line(), row.request().getSkuCode(),
+                        "Product with SKU code '" + row.request().getSkuCode() + "' already exists");
+            } else {
+                inserts.add(row);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        inserts.forEach(row -> productSkuFilter.add(row.request().getSkuCode()));
+        try {
+            insert(inserts);
+            state.imported += inserts.size();
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} rows failed, retrying row by row: {}", inserts.size(), e.getMessage());
+            for (Row row : inserts) {
+                try {
+                    insert(List.of(row));
+                    state.imported++;
+                } catch (RuntimeException rowFailure) {
+                    state.reject(row.line(), row.request().getSkuCode(),
+                            "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Product> saved = productRepository.saveAll(rows.stream()
+                    .map(row -> {
+                        Product product = productMapper.toEntity(row.request());
+                        product.setActive(true);
+                        return product;
+                    })
+                    .toList());
+            saved.forEach(product -> eventPublisher.publishEvent(
+                    new ProductChangedEvent(productMapper.toResponse(product))));
+        });
+    }
+
+    private ProductRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ProductRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static Map<String, Integer> csvColumns(String header) {
+        List<String> names = splitCsv(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            if (!CSV_COLUMNS.contains(name)) {
+                throw new BadRequestException("Unknown CSV column '" + name + "'. Expected: " + CSV_COLUMNS);
+            }
+            columns.put(name, i);
+        }
+        return columns;
+    }
+
+    private static ProductRequest parseCsv(String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + values.size());
+        }
+        String price = column(values, columns, "price");
+        try {
+            return ProductRequest.builder()
+                    .name(column(values, columns, "name"))
+                    .description(column(values, columns, "description"))
+                    .price(price != null ? new BigDecimal(price.trim()) : null)
+                    .skuCode(column(values, columns, "skuCode"))
+                    .category(column(values, columns, "category"))
+                    .imageUrl(column(values, columns, "imageUrl"))
+                    .build();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + price);
+        }
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    /**
+     * Splits one CSV record. Fields may be quoted, with {@code ""} as an escaped quote;
+     * quoted line breaks are not supported.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(int line, ProductRequest request) {}
+
+    private static class ImportState {
+        private final List<ProductImportResult.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        private int failed;
+
+        private void reject(int line, String skuCode, String message) {
+            if (failed++ >= MAX_ERRORS) {
+                return;
+            }
+            errors.add(ProductImportResult.RowError.builder()
+                    .line(line)
+                    .skuCode(skuCode)
+                    .message(message)
+                    .build());
+        }
+    }
+}
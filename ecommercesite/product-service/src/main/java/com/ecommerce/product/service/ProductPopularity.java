@@ -0,0 +1,32 @@
+package com.ecommerce.product.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-product view counts since startup, used to rank suggestions. Counts are kept in memory
+ * only and start from zero on every instance.
+ */
+@Component
+public class ProductPopularity {
+
+    private final Map<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final LongAdder totalViews = new LongAdder();
+
+    public void recordView(Long productId) {
+        views.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        totalViews.increment();
+    }
+
+    public int weight(long productId) {
+        LongAdder count = views.get(productId);
+        return count == null ? 0 : (int) Math.min(count.sum(), Integer.MAX_VALUE);
+    }
+
+    public long totalViews() {
+        return totalViews.sum();
+    }
+}
@@ -0,0 +1,228 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.dto.PagedResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * In-memory inverted index over active products' name, category and description. Built from
+ * the database at startup (in parallel fork-join chunks) and kept current from
+ * {@link ProductChangedEvent}s after each write commits; searches never touch the database.
+ * Writes made on other nodes arrive through {@link ProductChangeFollower}, so results can lag
+ * them by the follow interval plus the change feed's safety lag.
+ *
+ * <p>All query terms must match. Hits are ranked by the sum over terms of field-weighted term
+ * frequency times inverse document frequency.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final int BUILD_CHUNK_SIZE = 1000;
+
+    private final ProductService productService;
+
+    private final Object writeLock = new Object();
+    private volatile Index index = new Index();
+    // Non-null while a rebuild runs; changes seen meanwhile are replayed onto the new index
+    private List<ProductResponse> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<ProductResponse> products = productService.getAllActiveProducts();
+        rebuild(products);
+        log.info("Search index built for {} products in {} ms", products.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void rebuild(List<ProductResponse> products) {
+        synchronized (writeLock) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        Index rebuilt = ForkJoinPool.commonPool().invoke(new BuildTask(products, 0, products.size()));
+        synchronized (writeLock) {
+            changedDuringRebuild.forEach(rebuilt::put);
+            changedDuringRebuild = null;
+            index = rebuilt;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (writeLock) {
+            index.put(event.product());
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.product());
+            }
+        }
+    }
+
+    public PagedResponse<ProductResponse> search(String query, int page, int size) {
+        Index current = index;
+        List<String> terms = tokenize(query).stream().distinct().toList();
+
+        List<Hit> hits = new ArrayList<>();
+        List<Map<Long, Float>> postings = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, Float> posting = current.postings.get(term);
+            if (posting == null) {
+                postings.clear();
+                break;
+            }
+            postings.add(posting);
+        }
+        if (!postings.isEmpty()) {
+            // Drive the intersection from the rarest term
+            postings.sort(Comparator.comparingInt(Map::size));
+            int documentCount = current.documents.size();
+            for (Long id : postings.get(0).keySet()) {
+                float score = 0;
+                for (Map<Long, Float> posting : postings) {
+                    Float weight = posting.get(id);
+                    if (weight == null) {
+                        score = -1;
+                        break;
+                    }
+                    score += weight * (float) Math.log(1 + (double) documentCount / posting.size());
+                }
+                if (score >= 0) {
+                    hits.add(new Hit(id, score));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id));
+
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<ProductResponse> content = new ArrayList<>(to - from);
+        for (Hit hit : hits.subList(from, to)) {
+            Document document = current.documents.get(hit.id());
+            if (document != null) {
+                content.add(document.product());
+            }
+        }
+        int totalPages = (hits.size() + size - 1) / size;
+        return PagedResponse.<ProductResponse>builder()
+                .content(content)
+                .pageNumber(page)
+                .pageSize(size)
+                .totalElements((long) hits.size())
+                .totalPages(totalPages)
+                .last(page >= totalPages - 1)
+                .build();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static Map<String, Float> termWeights(ProductResponse product) {
+        Map<String, Float> weights = new HashMap<>();
+        tokenize(product.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::sum));
+        tokenize(product.getCategory()).forEach(term -> weights.merge(term, CATEGORY_WEIGHT, Float::sum));
+        tokenize(product.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+        return weights;
+    }
+
+    private record Hit(Long id, float score) {}
+
+    private record Document(ProductResponse product, Set<String> terms) {}
+
+    private static final class Index {
+
+        private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+        private final Map<String, Map<Long, Float>> postings = new ConcurrentHashMap<>();
+
+        void put(ProductResponse product) {
+            remove(product.getId());
+            if (!product.isActive()) {
+                return;
+            }
+            Map<String, Float> weights = termWeights(product);
+            documents.put(product.getId(), new Document(product, weights.keySet()));
+            weights.forEach((term, weight) -> postings
+                    .computeIfAbsent(term, key -> new ConcurrentHashMap<>())
+                    .put(product.getId(), weight));
+        }
+
+        void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms()) {
+                postings.computeIfPresent(term, (key, posting) -> {
+                    posting.remove(id);
+                    return posting.isEmpty() ? null : posting;
+                });
+            }
+        }
+
+        Index merge(Index other) {
+            documents.putAll(other.documents);
+            other.postings.forEach((term, posting) -> postings.merge(term, posting, (mine, theirs) -> {
+                mine.putAll(theirs);
+                return mine;
+            }));
+            return this;
+        }
+    }
+
+    private static final class BuildTask extends RecursiveTask<Index> {
+
+        private final List<ProductResponse> products;
+        private final int from;
+        private final int to;
+
+        BuildTask(List<ProductResponse> products, int from, int to) {
+            this.products = products;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Index compute() {
+            if (to - from <= BUILD_CHUNK_SIZE) {
+                Index chunk = new Index();
+                for (int i = from; i < to; i++) {
+                    chunk.put(products.get(i));
+                }
+                return chunk;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(products, from, middle);
+            left.fork();
+            Index right = new BuildTask(products, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
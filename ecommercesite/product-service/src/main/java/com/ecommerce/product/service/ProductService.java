@@ -5,86 +5,229 @@ import com.ecommerce.common.exception.BadRequestException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSummary;
+import com.ecommerce.product.dto.ProductVersion;
 import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.event.ProductChangedEvent;
 import com.ecommerce.product.mapper.ProductMapper;
 import com.ecommerce.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
 public class ProductService {
 
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductPopularity productPopularity;
+    private final ProductSkuFilter productSkuFilter;
 
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         log.info("Creating product with SKU: {}", request.getSkuCode());
 
+        // Not short-circuited by the SKU filter: it may not have seen another node's insert yet
         if (productRepository.existsBySkuCode(request.getSkuCode())) {
             throw new BadRequestException("Product with SKU code '" + request.getSkuCode() + "' already exists");
         }
 
+        // Added before the insert commits so a reader can never miss the new SKU
+        productSkuFilter.add(request.getSkuCode());
         Product product = productMapper.toEntity(request);
         product.setActive(true);
         Product saved = productRepository.save(product);
 
+        ProductResponse response = productMapper.toResponse(saved);
+        eventPublisher.publishEvent(new ProductChangedEvent(response));
+
         log.info("Product created successfully with ID: {}", saved.getId());
-        return productMapper.toResponse(saved);
+        return response;
     }
 
+    // The single-product reads below are NOT_SUPPORTED so a cache hit takes no transaction or
+    // connection; a miss loads through the repository's own read-only transaction.
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductResponse getProductById(Long id) {
-        log.debug("Fetching product with ID: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-        return productMapper.toResponse(product);
+        ProductResponse response = productCache.getById(id, key -> {
+            log.debug("Fetching product with ID: {}", key);
+            Product product = productRepository.findById(key)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", key));
+            return productMapper.toResponse(product);
+        });
+        productPopularity.recordView(response.getId());
+        return response;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductResponse getProductBySkuCode(String skuCode) {
-        log.debug("Fetching product with SKU: {}", skuCode);
-        Product product = productRepository.findBySkuCode(skuCode)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "skuCode", skuCode));
-        return productMapper.toResponse(product);
+        if (!productSkuFilter.mightContain(skuCode)) {
+            throw new ResourceNotFoundException("Product", "skuCode", skuCode);
+        }
+        ProductResponse response = productCache.getBySkuCode(skuCode, key -> {
+            log.debug("Fetching product with SKU: {}", key);
+            Product product = productRepository.findBySkuCode(key).orElseThrow(() -> {
+                productSkuFilter.recordFalsePositive();
+                return new ResourceNotFoundException("Product", "skuCode", key);
+            });
+            return productMapper.toResponse(product);
+        });
+        productPopularity.recordView(response.getId());
+        return response;
+    }
+
+    /**
+     * The version a read of the product would return, for answering conditional GETs without
+     * loading it: taken from the cache when it holds the product, otherwise from a two-column
+     * query. Empty when there is no such product. Unlike a full read, this is not counted as a
+     * view.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ProductVersion> getProductVersionById(Long id) {
+        ProductResponse cached = productCache.peekById(id);
+        return cached != null
+                ? Optional.of(new ProductVersion(cached.getId(), cached.getUpdatedAt()))
+                : productRepository.findVersionById(id);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ProductVersion> getProductVersionBySkuCode(String skuCode) {
+        if (!productSkuFilter.mightContain(skuCode)) {
+            return Optional.empty();
+        }
+        ProductResponse cached = productCache.peekBySkuCode(skuCode);
+        return cached != null
+                ? Optional.of(new ProductVersion(cached.getId(), cached.getUpdatedAt()))
+                : productRepository.findVersionBySkuCode(skuCode);
+    }
+
+    /** Versions of the products {@link #getProductsByIds} would return, in the same order. */
+    public List<ProductVersion> getProductVersionsByIds(List<Long> ids) {
+        List<Long> distinct = distinctBatch(ids);
+        Map<Long, ProductVersion> versionsById = productRepository.findVersionsByIdIn(distinct).stream()
+                .collect(Collectors.toMap(ProductVersion::id, Function.identity()));
+        return distinct.stream()
+                .map(versionsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        List<Long> distinct = distinctBatch(ids);
+        log.debug("Fetching {} products by ID", distinct.size());
+        Map<Long, Product> productsById = productRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return distinct.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toResponse)
+                .collect(Collectors.toList());
     }
 
-    public PagedResponse<ProductResponse> getAllProducts(int page, int size, String sortBy, String direction) {
+    // The limit counts distinct IDs, so repeats in a page do not push it over
+    private static List<Long> distinctBatch(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " product IDs can be requested at once");
+        }
+        return distinct;
+    }
+
+    public PagedResponse<ProductSummary> getAllProducts(int page, int size, String sortBy, String direction) {
         Sort sort = direction.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Product> productPage = productRepository.findByActiveTrue(pageable);
+        return toPage(productRepository.findSummariesByActiveTrue(pageable));
+    }
+
+    public PagedResponse<ProductSummary> getProductsByCategory(String category, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
+        return toPage(productRepository.findSummariesByCategory(category, pageable));
+    }
 
-        return PagedResponse.<ProductResponse>builder()
-                .content(productMapper.toResponseList(productPage.getContent()))
-                .pageNumber(productPage.getNumber())
-                .pageSize(productPage.getSize())
-                .totalElements(productPage.getTotalElements())
-                .totalPages(productPage.getTotalPages())
-                .last(productPage.isLast())
+    /**
+     * Keyset-paginated listing: resumes after the cursor (empty for the first page) without
+     * an offset or a count query. A cursor carries its own sort, so sortBy and direction only
+     * apply to the first page.
+     */
+    public PagedResponse<ProductSummary> scrollProducts(String after, int size, String sortBy, String direction) {
+        ProductCursor cursor = after.isEmpty() ? ProductCursor.first(sortBy, direction) : ProductCursor.decode(after);
+        Window<ProductSummary> window = productRepository.findSummariesByActiveTrue(cursor.position(), cursor.sort(), Limit.of(size));
+        return toCursorPage(window, cursor, size);
+    }
+
+    public PagedResponse<ProductSummary> scrollProductsByCategory(String category, String after, int size) {
+        ProductCursor cursor = after.isEmpty() ? ProductCursor.first("name", "asc") : ProductCursor.decode(after);
+        Window<ProductSummary> window = productRepository.findSummariesByCategory(category, cursor.position(), cursor.sort(), Limit.of(size));
+        return toCursorPage(window, cursor, size);
+    }
+
+    /**
+     * Loads every active product in keyset pages of {@value #LOAD_PAGE_SIZE}, each in its own
+     * short read so no persistence context grows with the catalog. Used to build the in-memory
+     * indexes.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductResponse> getAllActiveProducts() {
+        List<ProductResponse> products = new ArrayList<>();
+        ScrollPosition position = ScrollPosition.keyset();
+        Window<Product> window;
+        do {
+            window = productRepository.findByActiveTrue(position, Sort.by("id"), Limit.of(LOAD_PAGE_SIZE));
+            products.addAll(productMapper.toResponseList(window.getContent()));
+            if (!window.isEmpty()) {
+                position = window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+        return products;
+    }
+
+    private static PagedResponse<ProductSummary> toPage(Page<ProductSummary> page) {
+        return PagedResponse.<ProductSummary>builder()
+                .content(page.getContent())
+                .pageNumber(page.getNumber())
+                .pageSize(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .last(page.isLast())
                 .build();
     }
 
-    public PagedResponse<ProductResponse> getProductsByCategory(String category, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("name").ascending());
-        Page<Product> productPage = productRepository.findByCategory(category, pageable);
-
-        return PagedResponse.<ProductResponse>builder()
-                .content(productMapper.toResponseList(productPage.getContent()))
-                .pageNumber(productPage.getNumber())
-                .pageSize(productPage.getSize())
-                .totalElements(productPage.getTotalElements())
-                .totalPages(productPage.getTotalPages())
-                .last(productPage.isLast())
+    private static PagedResponse<ProductSummary> toCursorPage(Window<ProductSummary> window, ProductCursor cursor, int size) {
+        return PagedResponse.<ProductSummary>builder()
+                .content(window.getContent())
+                .pageSize(size)
+                .last(!window.hasNext())
+                .nextCursor(window.hasNext() ? cursor.next(window.positionAt(window.size() - 1)) : null)
                 .build();
     }
 
@@ -95,11 +238,17 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
 
+        String previousSkuCode = product.getSkuCode();
+        productSkuFilter.add(request.getSkuCode());
         productMapper.updateEntityFromRequest(request, product);
         Product updated = productRepository.save(product);
+        productCache.evict(id, previousSkuCode, updated.getSkuCode());
+
+        ProductResponse response = productMapper.toResponse(updated);
+        eventPublisher.publishEvent(new ProductChangedEvent(response));
 
         log.info("Product updated successfully: {}", updated.getId());
-        return productMapper.toResponse(updated);
+        return response;
     }
 
     @Transactional
@@ -111,6 +260,8 @@ public class ProductService {
 
         product.setActive(false);
         productRepository.save(product);
+        productCache.evict(id, product.getSkuCode());
+        eventPublisher.publishEvent(new ProductChangedEvent(productMapper.toResponse(product)));
 
         log.info("Product soft-deleted: {}", id);
     }
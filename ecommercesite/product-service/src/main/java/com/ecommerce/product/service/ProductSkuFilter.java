@@ -0,0 +1,157 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every SKU code in the catalog, active or not, so lookups for SKUs that
+ * were never created can be answered without a query. SKUs are never removed (products are
+ * only soft-deleted). A SKU created on this node is added before its insert commits; one
+ * created on another node arrives through {@link ProductChangeFollower}, so until then this
+ * node can answer "not found" for it. Uniqueness checks therefore never rely on a negative.
+ *
+ * <p>Until the startup load finishes, every SKU "might exist" and callers fall through to the
+ * database.
+ */
+@Component
+@Slf4j
+public class ProductSkuFilter implements MeterBinder {
+
+    private final ProductRepository productRepository;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final LongAdder skippedLookups = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile boolean ready;
+
+    public ProductSkuFilter(ProductRepository productRepository,
+                            @Value("${product.sku-filter.expected-skus:1000000}") long expectedSkus,
+                            @Value("${product.sku-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.productRepository = productRepository;
+        long bits = (long) Math.ceil(-expectedSkus * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedSkus * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.nanoTime();
+        LongAdder count = new LongAdder();
+        try (Stream<String> skuCodes = productRepository.streamAllSkuCodes()) {
+            skuCodes.forEach(skuCode -> {
+                add(skuCode);
+                count.increment();
+            });
+        }
+        ready = true;
+        log.info("SKU filter loaded with {} SKUs in {} ms; estimated false-positive rate {}",
+                count.sum(), (System.nanoTime() - start) / 1_000_000, String.format("%.4f", falsePositiveRate()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        add(event.product().getSkuCode());
+    }
+
+    public void add(String skuCode) {
+        long hash = hash(skuCode);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long previous = words.getAndAccumulate(word, mask, (current, m) -> current | m);
+            if ((previous & mask) == 0) {
+                bitsSet.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * False only when the SKU was definitely never added. Counts each definite miss. Matching
+     * is exact, as the {@code skuCode} column's comparison is.
+     */
+    public boolean mightContain(String skuCode) {
+        if (!ready) {
+            return true;
+        }
+        long hash = hash(skuCode);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                skippedLookups.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Records a SKU the filter let through that turned out not to exist. */
+    public void recordFalsePositive() {
+        if (ready) {
+            falsePositives.increment();
+        }
+    }
+
+    /** Probability that an absent SKU passes, given the bits set so far. */
+    public double falsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("products.sku-filter.false-positive-rate", this, ProductSkuFilter::falsePositiveRate)
+                .description("Estimated chance that a nonexistent SKU still reaches the database")
+                .register(registry);
+        Gauge.builder("products.sku-filter.memory", this, filter -> filter.bitCount / 8.0)
+                .description("Size of the SKU filter's bit array")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionCounter.builder("products.sku-filter.skipped-lookups", skippedLookups, LongAdder::sum)
+                .description("SKU lookups answered without a query")
+                .register(registry);
+        FunctionCounter.builder("products.sku-filter.false-positives", falsePositives, LongAdder::sum)
+                .description("SKU lookups that passed the filter but found no product")
+                .register(registry);
+    }
+
+    // 64-bit FNV-1a finished with the MurmurHash3 mixer; the halves seed double hashing
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
+import com.ecommerce.product.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prefix autocomplete over active products' names and SKU codes, ranked by view count.
+ *
+ * <p>Lookups go to an immutable {@link SuggestionTrie} plus a small overlay of products changed
+ * since it was built; an overlay entry shadows the trie's entries for the same product. The
+ * overlay is folded into a fresh trie on a schedule (picking up new view counts) or as soon as
+ * it outgrows {@code product.suggest.max-overlay}. Products changed on other nodes reach the
+ * overlay through {@link ProductChangeFollower}, a follow interval plus the change feed's safety
+ * lag behind.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex implements MeterBinder {
+
+    public static final int MAX_SUGGESTIONS = 10;
+    // Headroom so overlay-shadowed entries rarely leave a precomputed list short
+    private static final int TOP_K = 2 * MAX_SUGGESTIONS;
+
+    private final ProductService productService;
+    private final ProductPopularity productPopularity;
+    private final int scanThreshold;
+    private final int maxOverlay;
+
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private final Map<Long, ProductResponse> overlay = new ConcurrentHashMap<>();
+    private volatile SuggestionTrie trie;
+    private long viewsAtLastBuild = -1;
+
+    public ProductSuggestIndex(ProductService productService,
+                               ProductPopularity productPopularity,
+                               @Value("${product.suggest.scan-threshold:256}") int scanThreshold,
+                               @Value("${product.suggest.max-overlay:1000}") int maxOverlay) {
+        this.productService = productService;
+        this.productPopularity = productPopularity;
+        this.scanThreshold = scanThreshold;
+        this.maxOverlay = maxOverlay;
+        this.trie = SuggestionTrie.build(List.of(), TOP_K, scanThreshold);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        rebuild(productService.getAllActiveProducts());
+        log.info("Suggest index built with {} entries ({} bytes) in {} ms",
+                trie.size(), trie.memoryBytes(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void rebuild(List<ProductResponse> products) {
+        synchronized (rebuildLock) {
+            long views = productPopularity.totalViews();
+            List<SuggestionTrie.Entry> entries = new ArrayList<>(products.size() * 2);
+            products.forEach(product -> addEntries(product, entries));
+            trie = SuggestionTrie.build(entries, TOP_K, scanThreshold);
+            viewsAtLastBuild = views;
+        }
+    }
+
+    /**
+     * Folds the overlay into a new trie and re-weights every entry with current view counts.
+     * Works from the current trie rather than the database.
+     */
+    @Scheduled(fixedDelayString = "${product.suggest.compact-interval-ms:300000}",
+            initialDelayString = "${product.suggest.compact-interval-ms:300000}")
+    public void compact() {
+        synchronized (rebuildLock) {
+            long views = productPopularity.totalViews();
+            if (overlay.isEmpty() && views == viewsAtLastBuild) {
+                return;
+            }
+            Map<Long, ProductResponse> changed = new HashMap<>(overlay);
+            SuggestionTrie current = trie;
+            List<SuggestionTrie.Entry> entries = new ArrayList<>(current.size() + changed.size() * 2);
+            for (int i = 0; i < current.size(); i++) {
+                long productId = current.productId(i);
+                if (!changed.containsKey(productId)) {
+                    entries.add(new SuggestionTrie.Entry(current.text(i), productId, current.isSku(i),
+                            productPopularity.weight(productId)));
+                }
+            }
+            changed.values().forEach(product -> addEntries(product, entries));
+            trie = SuggestionTrie.build(entries, TOP_K, scanThreshold);
+            viewsAtLastBuild = views;
+            // A product changed again meanwhile keeps its newer overlay entry
+            changed.forEach(overlay::remove);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        overlay.put(event.product().getId(), event.product());
+        if (overlay.size() > maxOverlay && compactionQueued.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                compactionQueued.set(false);
+                compact();
+            });
+        }
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.stripLeading();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        SuggestionTrie current = trie;
+        List<Candidate> candidates = new ArrayList<>(size);
+        for (int index : current.lookup(normalized, size, overlay::containsKey)) {
+            candidates.add(new Candidate(current.text(index), current.productId(index),
+                    current.isSku(index) ? ProductSuggestion.Type.SKU : ProductSuggestion.Type.NAME,
+                    current.weight(index)));
+        }
+        if (!overlay.isEmpty()) {
+            for (ProductResponse product : overlay.values()) {
+                if (product.isActive()) {
+                    int weight = productPopularity.weight(product.getId());
+                    addIfMatches(candidates, product.getName(), product.getId(), ProductSuggestion.Type.NAME, weight, normalized);
+                    addIfMatches(candidates, product.getSkuCode(), product.getId(), ProductSuggestion.Type.SKU, weight, normalized);
+                }
+            }
+            candidates.sort(Comparator.comparingInt(Candidate::weight).reversed()
+                    .thenComparing(Candidate::text, String.CASE_INSENSITIVE_ORDER));
+        }
+
+        return candidates.stream()
+                .limit(size)
+                .map(candidate -> ProductSuggestion.builder()
+                        .text(candidate.text())
+                        .productId(candidate.productId())
+                        .type(candidate.type())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("products.suggest.memory", this, index -> index.trie.memoryBytes())
+                .description("Approximate heap retained by the suggestion trie")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder("products.suggest.entries", this, index -> index.trie.size())
+                .description("Names and SKU codes in the suggestion trie")
+                .register(registry);
+        Gauge.builder("products.suggest.overlay", overlay, Map::size)
+                .description("Products changed since the suggestion trie was last built")
+                .register(registry);
+    }
+
+    private void addEntries(ProductResponse product, List<SuggestionTrie.Entry> entries) {
+        if (!product.isActive()) {
+            return;
+        }
+        int weight = productPopularity.weight(product.getId());
+        if (product.getName() != null) {
+            entries.add(new SuggestionTrie.Entry(product.getName(), product.getId(), false, weight));
+        }
+        if (product.getSkuCode() != null) {
+            entries.add(new SuggestionTrie.Entry(product.getSkuCode(), product.getId(), true, weight));
+        }
+    }
+
+    private static void addIfMatches(List<Candidate> candidates, String text, Long productId,
+                                     ProductSuggestion.Type type, int weight, String prefix) {
+        if (text != null && text.regionMatches(true, 0, prefix, 0, prefix.length())) {
+            candidates.add(new Candidate(text, productId, type, weight));
+        }
+    }
+
+    private record Candidate(String text, long productId, ProductSuggestion.Type type, int weight) {}
+}
@@ -0,0 +1,262 @@
+package com.ecommerce.product.service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable prefix index packed into flat arrays. Keys are sorted case-insensitively and their
+ * characters stored back to back in one {@code char[]}, so the keys under a prefix form a
+ * contiguous range found by two binary searches; that range is the prefix's trie subtree.
+ *
+ * <p>Every prefix whose range holds more than {@code scanThreshold} keys gets its best
+ * {@code topK} keys precomputed at build time, so a lookup never ranks more than
+ * {@code scanThreshold} keys. Keys rank by weight, then alphabetically.
+ */
+final class SuggestionTrie {
+
+    record Entry(String text, long productId, boolean sku, int weight) {}
+
+    private static final int[] NONE = new int[0];
+
+    private final char[] chars;
+    private final int[] offsets;
+    private final long[] productIds;
+    private final int[] weights;
+    private final BitSet skuFlags;
+    private final Map<String, int[]> topByPrefix;
+    private final int topK;
+    private final int scanThreshold;
+    private final long memoryBytes;
+
+    private SuggestionTrie(Entry[] sorted, int topK, int scanThreshold) {
+        int n = sorted.length;
+        this.offsets = new int[n + 1];
+        this.productIds = new long[n];
+        this.weights = new int[n];
+        this.skuFlags = new BitSet(n);
+        int length = 0;
+        for (Entry entry : sorted) {
+            length += entry.text().length();
+        }
+        this.chars = new char[length];
+        for (int i = 0; i < n; i++) {
+            Entry entry = sorted[i];
+            entry.text().getChars(0, entry.text().length(), chars, offsets[i]);
+            offsets[i + 1] = offsets[i] + entry.text().length();
+            productIds[i] = entry.productId();
+            weights[i] = entry.weight();
+            skuFlags.set(i, entry.sku());
+        }
+        this.topK = topK;
+        this.scanThreshold = scanThreshold;
+        this.topByPrefix = new HashMap<>();
+        precompute(0, n, 0, new StringBuilder());
+        this.memoryBytes = estimateMemory();
+    }
+
+    static SuggestionTrie build(List<Entry> entries, int topK, int scanThreshold) {
+        Entry[] sorted = entries.toArray(Entry[]::new);
+        Arrays.parallelSort(sorted, (a, b) -> compareFolded(a.text(), b.text()));
+        return new SuggestionTrie(sorted, topK, scanThreshold);
+    }
+
+    /**
+     * Returns the indexes of the best keys starting with {@code prefix} (ignoring case), best
+     * first, skipping keys whose product ID is excluded.
+     */
+    int[] lookup(String prefix, int limit, LongPredicate excluded) {
+        int from = bound(prefix, false);
+        int to = bound(prefix, true);
+        if (to - from <= scanThreshold) {
+            return scan(from, to, limit, excluded);
+        }
+        int[] top = topByPrefix.getOrDefault(fold(prefix), NONE);
+        int[] result = new int[Math.min(limit, top.length)];
+        int count = 0;
+        for (int i = 0; i < top.length && count < result.length; i++) {
+            if (!excluded.test(productIds[top[i]])) {
+                result[count++] = top[i];
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    int size() {
+        return productIds.length;
+    }
+
+    String text(int index) {
+        return new String(chars, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+
+    long productId(int index) {
+        return productIds[index];
+    }
+
+    boolean isSku(int index) {
+        return skuFlags.get(index);
+    }
+
+    int weight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Approximate retained size in bytes: the packed arrays plus the precomputed top lists,
+     * assuming a 64-bit JVM with compressed references.
+     */
+    long memoryBytes() {
+        return memoryBytes;
+    }
+
+    int precomputedPrefixes() {
+        return topByPrefix.size();
+    }
+
+    private int[] precompute(int from, int to, int depth, StringBuilder prefix) {
+        if (to - from <= scanThreshold) {
+            return scan(from, to, topK, id -> false);
+        }
+        TopK best = new TopK(topK);
+        int i = from;
+        // Keys equal to the prefix itself sort before every longer key
+        while (i < to && length(i) == depth) {
+            best.offer(i++);
+        }
+        while (i < to) {
+            char c = fold(chars[offsets[i] + depth]);
+            int end = i + 1;
+            while (end < to && fold(chars[offsets[end] + depth]) == c) {
+                end++;
+            }
+            prefix.append(c);
+            for (int child : precompute(i, end, depth + 1, prefix)) {
+                best.offer(child);
+            }
+            prefix.setLength(depth);
+            i = end;
+        }
+        int[] top = best.toArray();
+        topByPrefix.put(prefix.toString(), top);
+        return top;
+    }
+
+    private int[] scan(int from, int to, int limit, LongPredicate excluded) {
+        TopK best = new TopK(limit);
+        for (int i = from; i < to; i++) {
+            if (!excluded.test(productIds[i])) {
+                best.offer(i);
+            }
+        }
+        return best.toArray();
+    }
+
+    /**
+     * First index whose key does not sort before {@code prefix}, or with {@code upper}, the
+     * first index past every key starting with it.
+     */
+    private int bound(String prefix, boolean upper) {
+        int low = 0;
+        int high = productIds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int cmp = compareToPrefix(middle, prefix);
+            if (cmp < 0 || (upper && cmp == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** Negative if the key sorts before {@code prefix}, zero if it starts with it, else positive. */
+    private int compareToPrefix(int index, String prefix) {
+        int start = offsets[index];
+        int length = length(index);
+        int common = Math.min(length, prefix.length());
+        for (int i = 0; i < common; i++) {
+            int diff = fold(chars[start + i]) - fold(prefix.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length < prefix.length() ? -1 : 0;
+    }
+
+    private int length(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    private boolean better(int a, int b) {
+        return weights[a] > weights[b] || (weights[a] == weights[b] && a < b);
+    }
+
+    private long estimateMemory() {
+        long bytes = 16 + 2L * chars.length
+                + 16 + 4L * offsets.length
+                + 16 + 8L * productIds.length
+                + 16 + 4L * weights.length
+                + 16 + skuFlags.size() / 8;
+        // HashMap table slot and node, key String with its char array, and the top array
+        bytes += 16 + 4L * topByPrefix.size() * 2;
+        for (Map.Entry<String, int[]> entry : topByPrefix.entrySet()) {
+            bytes += 32 + 24 + 16 + 2L * entry.getKey().length() + 16 + 4L * entry.getValue().length;
+        }
+        return bytes;
+    }
+
+    private static int compareFolded(String a, String b) {
+        int common = Math.min(a.length(), b.length());
+        for (int i = 0; i < common; i++) {
+            int diff = fold(a.charAt(i)) - fold(b.charAt(i));
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    private static String fold(String text) {
+        char[] folded = new char[text.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(text.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /** Keeps the best {@code capacity} indexes offered, ordered best first. */
+    private final class TopK {
+
+        private final int[] items;
+        private int size;
+
+        TopK(int capacity) {
+            this.items = new int[capacity];
+        }
+
+        void offer(int index) {
+            if (size == items.length && (size == 0 || !better(index, items[size - 1]))) {
+                return;
+            }
+            int i = size == items.length ? size - 1 : size++;
+            while (i > 0 && better(index, items[i - 1])) {
+                items[i] = items[i - 1];
+                i--;
+            }
+            items[i] = index;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.ecommerce.product.snapshot;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A read-only, memory-mapped catalog file holding each product's pre-serialized
+ * {@link ProductResponse} JSON, indexed by ID and by SKU. Lookups binary-search the mapped
+ * indexes and return a slice of the mapping, so a product's JSON is never copied onto the heap.
+ *
+ * <p>Layout, all integers big-endian:
+ * <pre>
+ * header    magic:int version:int count:int idIndex:int skuIndex:int createdAt:long (padded to 32)
+ * records   skuLength:int sku:utf8 etagLength:int etag:ascii jsonLength:int json:utf8   (ascending ID)
+ * idIndex   id:long record:int       (ascending ID)
+ * skuIndex  skuHash:long record:int  (ascending hash)
+ * </pre>
+ * A mapping stays valid after the file is replaced, so readers of an old snapshot are
+ * unaffected by a refresh.
+ */
+public final class ProductSnapshot {
+
+    /** A product's ETag and a read-only view of its JSON inside the mapping. */
+    public record Hit(String etag, ByteBuffer json) {}
+
+    private static final int MAGIC = 0x50534e50;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int INDEX_ENTRY_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int idIndex;
+    private final int skuIndex;
+    private final long createdAt;
+
+    private ProductSnapshot(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a product snapshot (version " + VERSION + ")");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        this.idIndex = buffer.getInt(12);
+        this.skuIndex = buffer.getInt(16);
+        this.createdAt = buffer.getLong(20);
+    }
+
+    public static ProductSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ProductSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Writes products, which must come in ascending ID order, to a temporary file next to
+     * {@code target} and then atomically renames it over {@code target}.
+     *
+     * @return the number of products written
+     */
+    public static int write(Path target, Stream<ProductResponse> products, ObjectWriter writer,
+                            Function<ProductResponse, String> etag) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            int count = writeFile(temp, products.iterator(), writer, etag);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** The product, or null when the snapshot has no product with this ID. */
+    public Hit findById(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = idIndex + middle * INDEX_ENTRY_SIZE;
+            long candidate = buffer.getLong(entry);
+            if (candidate < id) {
+                low = middle + 1;
+            } else if (candidate > id) {
+                high = middle - 1;
+            } else {
+                return hit(buffer.getInt(entry + 8));
+            }
+        }
+        return null;
+    }
+
+    /** The product, or null when the snapshot has no product with this SKU. */
+    public Hit findBySkuCode(String skuCode) {
+        long hash = hash(skuCode);
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getLong(skuIndex + middle * INDEX_ENTRY_SIZE) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        byte[] sku = skuCode.getBytes(StandardCharsets.UTF_8);
+        for (int i = low; i < count && buffer.getLong(skuIndex + i * INDEX_ENTRY_SIZE) == hash; i++) {
+            int record = buffer.getInt(skuIndex + i * INDEX_ENTRY_SIZE + 8);
+            if (skuEquals(record, sku)) {
+                return hit(record);
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long createdAt() {
+        return createdAt;
+    }
+
+    private Hit hit(int record) {
+        int etagAt = record + 4 + buffer.getInt(record);
+        byte[] etag = new byte[buffer.getInt(etagAt)];
+        buffer.get(etagAt + 4, etag);
+        int jsonAt = etagAt + 4 + etag.length;
+        return new Hit(new String(etag, StandardCharsets.US_ASCII), buffer.slice(jsonAt + 4, buffer.getInt(jsonAt)));
+    }
+
+    private boolean skuEquals(int record, byte[] sku) {
+        if (buffer.getInt(record) != sku.length) {
+            return false;
+        }
+        return buffer.slice(record + 4, sku.length).equals(ByteBuffer.wrap(sku));
+    }
+
+    private static int writeFile(Path file, Iterator<ProductResponse> products, ObjectWriter writer,
+                                 Function<ProductResponse, String> etag) throws IOException {
+        long[] ids = new long[1024];
+        long[] skuHashes = new long[1024];
+        int[] records = new int[1024];
+        int count = 0;
+        int idIndex;
+        int skuIndex;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.write(new byte[HEADER_SIZE]);
+            while (products.hasNext()) {
+                ProductResponse product = products.next();
+                if (count > 0 && product.getId() <= ids[count - 1]) {
+                    throw new IllegalArgumentException("Products must be written in ascending ID order");
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    skuHashes = Arrays.copyOf(skuHashes, count * 2);
+                    records = Arrays.copyOf(records, count * 2);
+                }
+                byte[] sku = product.getSkuCode().getBytes(StandardCharsets.UTF_8);
+                byte[] tag = etag.apply(product).getBytes(StandardCharsets.US_ASCII);
+                byte[] json = writer.writeValueAsBytes(product);
+                ids[count] = product.getId();
+                skuHashes[count] = hash(product.getSkuCode());
+                records[count] = checkedOffset(out);
+                out.writeInt(sku.length);
+                out.write(sku);
+                out.writeInt(tag.length);
+                out.write(tag);
+                out.writeInt(json.length);
+                out.write(json);
+                count++;
+            }
+
+            idIndex = checkedOffset(out);
+            for (int i = 0; i < count; i++) {
+                out.writeLong(ids[i]);
+                out.writeInt(records[i]);
+            }
+            skuIndex = checkedOffset(out);
+            long[] hashes = skuHashes;
+            int[] bySku = IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparingLong(i -> hashes[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            for (int i : bySku) {
+                out.writeLong(skuHashes[i]);
+                out.writeInt(records[i]);
+            }
+            checkedOffset(out);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(count)
+                .putInt(idIndex)
+                .putInt(skuIndex)
+                .putLong(System.currentTimeMillis());
+        header.rewind();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(header, 0);
+        }
+        return count;
+    }
+
+    // DataOutputStream.size() saturates at Integer.MAX_VALUE, which is also the mapping limit
+    private static int checkedOffset(DataOutputStream out) {
+        if (out.size() == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Product snapshot exceeds 2 GB");
+        }
+        return out.size();
+    }
+
+    // 64-bit FNV-1a finished with the MurmurHash3 mixer
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
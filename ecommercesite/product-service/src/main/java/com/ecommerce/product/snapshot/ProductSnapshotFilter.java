@@ -0,0 +1,113 @@
+package com.ecommerce.product.snapshot;
+
+import com.ecommerce.common.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves single-product reads on a read-only node straight from the mapped
+ * {@link ProductSnapshot}: the product's JSON is written from the mapping into the usual
+ * {@link ApiResponse} envelope without being deserialized. Products missing from the snapshot
+ * fall through to the controller. Writes to the catalog are refused.
+ */
+@Component
+@ConditionalOnProperty(name = "product.snapshot.read-only", havingValue = "true")
+public class ProductSnapshotFilter extends OncePerRequestFilter {
+
+    private static final String PRODUCTS_PATH = "/api/products";
+    private static final Pattern BY_ID = Pattern.compile("/api/products/(\\d{1,18})");
+    private static final Pattern BY_SKU = Pattern.compile("/api/products/sku/([^/]+)");
+    private static final byte[] ENVELOPE_START =
+            "{\"success\":true,\"message\":\"Operation successful\",\"data\":".getBytes(StandardCharsets.UTF_8);
+
+    private final ProductSnapshotStore snapshotStore;
+    private final ObjectMapper objectMapper;
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ProductSnapshotFilter(ProductSnapshotStore snapshotStore, ObjectMapper objectMapper) {
+        this.snapshotStore = snapshotStore;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        if (!path.startsWith(PRODUCTS_PATH)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            writeJson(response, HttpStatus.METHOD_NOT_ALLOWED,
+                    objectMapper.writeValueAsBytes(ApiResponse.error("This node serves the catalog read-only")));
+            return;
+        }
+
+        ProductSnapshot.Hit hit = find(path);
+        if (hit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(hit.etag())) {
+            return;
+        }
+
+        byte[] envelopeEnd = (",\"timestamp\":" + objectMapper.writeValueAsString(LocalDateTime.now()) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+        ByteBuffer json = hit.json();
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(ENVELOPE_START.length + json.remaining() + envelopeEnd.length);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        out.write(ENVELOPE_START);
+        Channels.newChannel(out).write(json);
+        out.write(envelopeEnd);
+    }
+
+    private ProductSnapshot.Hit find(String path) {
+        ProductSnapshot snapshot = snapshotStore.current();
+        if (snapshot == null) {
+            return null;
+        }
+        Matcher byId = BY_ID.matcher(path);
+        if (byId.matches()) {
+            return snapshot.findById(Long.parseLong(byId.group(1)));
+        }
+        Matcher bySku = BY_SKU.matcher(path);
+        if (bySku.matches()) {
+            return snapshot.findBySkuCode(bySku.group(1));
+        }
+        return null;
+    }
+
+    private static void writeJson(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
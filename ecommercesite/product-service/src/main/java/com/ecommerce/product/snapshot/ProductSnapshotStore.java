@@ -0,0 +1,56 @@
+package com.ecommerce.product.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Holds the current {@link ProductSnapshot} on a read-only node. The last snapshot on disk is
+ * mapped at startup, so the node serves reads without warming anything, and a newer file is
+ * swapped in whenever the writer replaces it.
+ */
+@Component
+@ConditionalOnProperty(name = "product.snapshot.read-only", havingValue = "true")
+@Slf4j
+public class ProductSnapshotStore {
+
+    private final Path path;
+    private volatile ProductSnapshot snapshot;
+    private FileTime loadedModified;
+
+    public ProductSnapshotStore(@Value("${product.snapshot.path}") Path path) {
+        this.path = path;
+        reload();
+    }
+
+    /** The current snapshot, or null before one has been written. */
+    public ProductSnapshot current() {
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${product.snapshot.reload-interval-ms:5000}")
+    public synchronized void reload() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(loadedModified)) {
+                return;
+            }
+            ProductSnapshot next = ProductSnapshot.open(path);
+            snapshot = next;
+            loadedModified = modified;
+            log.info("Mapped product snapshot of {} products from {}", next.size(), path);
+        } catch (NoSuchFileException e) {
+            log.debug("No product snapshot at {} yet", path);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Keeping the current product snapshot; could not map {}: {}", path, e.getMessage());
+        }
+    }
+}
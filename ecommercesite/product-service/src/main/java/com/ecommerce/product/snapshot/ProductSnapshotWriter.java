@@ -0,0 +1,73 @@
+package com.ecommerce.product.snapshot;
+
+import com.ecommerce.common.web.ETags;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Periodically writes the whole catalog, inactive products included, to the snapshot file that
+ * read-only nodes map. Runs only on nodes with {@code product.snapshot.writer=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "product.snapshot.writer", havingValue = "true")
+@Slf4j
+public class ProductSnapshotWriter {
+
+    private final SessionFactory sessionFactory;
+    private final ProductMapper productMapper;
+    private final ObjectWriter writer;
+    private final Path path;
+    private final int fetchSize;
+
+    public ProductSnapshotWriter(EntityManagerFactory entityManagerFactory,
+                                 ProductMapper productMapper,
+                                 ObjectMapper objectMapper,
+                                 @Value("${product.snapshot.path}") Path path,
+                                 @Value("${product.export.fetch-size:500}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.productMapper = productMapper;
+        this.writer = objectMapper.writer();
+        this.path = path;
+        this.fetchSize = fetchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${product.snapshot.write-interval-ms:60000}")
+    public void write() throws IOException {
+        long start = System.nanoTime();
+        int count;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // Without a transaction the connection autocommits and PostgreSQL ignores the fetch size
+            Transaction transaction = session.beginTransaction();
+            try (Stream<Product> products = session.createQuery("FROM Product p ORDER BY p.id", Product.class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .stream()) {
+                // Same strong ETag the controller derives, so conditional GETs work against either tier
+                count = ProductSnapshot.write(path, products.map(productMapper::toResponse), writer,
+                        product -> ETags.strong(product.getId(), product.getUpdatedAt()));
+                transaction.commit();
+            } finally {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+            }
+        }
+        log.info("Wrote product snapshot of {} products to {} in {} ms",
+                count, path, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,17 +1,28 @@
 package com.ecommerce.product;
 
 import com.ecommerce.product.dto.ProductRequest;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.ecommerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +39,15 @@ class ProductServiceIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Test
     @DisplayName("Full product lifecycle: create → get → update → delete")
     void productLifecycle() throws Exception {
@@ -76,4 +96,268 @@ class ProductServiceIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
     }
+
+    @Test
+    @DisplayName("Cursor pagination walks a category once, in order, across tied sort keys")
+    void cursorPagination() throws Exception {
+        String[] names = {"Cursor B", "Cursor A", "Cursor C", "Cursor B", "Cursor D"};
+        for (int i = 0; i < names.length; i++) {
+            ProductRequest request = ProductRequest.builder()
+                    .name(names[i])
+                    .price(new BigDecimal("10.00"))
+                    .skuCode("SKU-CURSOR-" + i)
+                    .category("Cursor")
+                    .build();
+            mockMvc.perform(post("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        do {
+            String body = mockMvc.perform(get("/api/products/category/Cursor")
+                            .param("size", "2")
+                            .param("after", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body).path("data");
+            page.path("content").forEach(product -> seen.add(product.path("name").asText()));
+            cursor = page.path("nextCursor").isMissingNode() ? null : page.path("nextCursor").asText();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly("Cursor A", "Cursor B", "Cursor B", "Cursor C", "Cursor D");
+    }
+
+    @Test
+    @DisplayName("List endpoints return summaries, narrowed by fields=")
+    void listSummaries() throws Exception {
+        ProductRequest request = ProductRequest.builder()
+                .name("Summary Product")
+                .description("Not part of a summary")
+                .price(new BigDecimal("15.00"))
+                .skuCode("SKU-SUMMARY-1")
+                .category("Summary")
+                .build();
+        mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        String body = mockMvc.perform(get("/api/products/category/Summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode summary = objectMapper.readTree(body).path("data").path("content").get(0);
+        assertThat(summary.fieldNames()).toIterable().containsExactlyInAnyOrder(
+                "id", "name", "price", "skuCode", "category", "imageUrl", "active", "createdAt", "updatedAt");
+
+        mockMvc.perform(get("/api/products/category/Summary").param("fields", "skuCode, price").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].skuCode").value("SKU-SUMMARY-1"))
+                .andExpect(jsonPath("$.data.content[0].price").value(15.00))
+                .andExpect(jsonPath("$.data.content[0].name").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].id").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Conditional GETs answer 304 until the product changes")
+    void conditionalGet() throws Exception {
+        ProductRequest request = ProductRequest.builder()
+                .name("ETag Product")
+                .price(new BigDecimal("20.00"))
+                .skuCode("SKU-ETAG-1")
+                .category("ETag")
+                .build();
+        String created = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long productId = objectMapper.readTree(created).path("data").path("id").asLong();
+
+        String etag = mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String listEtag = mockMvc.perform(get("/api/products/category/ETag"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String batchEtag = mockMvc.perform(get("/api/products/batch").param("ids", productId + ",0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("\"");
+        assertThat(listEtag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/products/" + productId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/products/category/ETag").header("If-None-Match", listEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/sku/SKU-ETAG-1").header("If-None-Match", "\"other\", " + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/batch").param("ids", productId + ",0").header("If-None-Match", batchEtag))
+                .andExpect(status().isNotModified());
+
+        request.setPrice(new BigDecimal("22.00"));
+        mockMvc.perform(put("/api/products/" + productId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/products/" + productId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)))
+                .andExpect(jsonPath("$.data.price").value(22.00));
+        mockMvc.perform(get("/api/products/category/ETag").header("If-None-Match", listEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/batch").param("ids", productId + ",0").header("If-None-Match", batchEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/sku/SKU-ETAG-404").header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("A change followed from another node evicts the cached product")
+    void followedChangeEvictsCache() throws Exception {
+        ProductRequest request = ProductRequest.builder()
+                .name("Cached Product")
+                .price(new BigDecimal("15.00"))
+                .skuCode("SKU-CACHE-1")
+                .category("Cache")
+                .build();
+        String created = mockMvc.perform(post("/api/products")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long productId = objectMapper.readTree(created).path("data").path("id").asLong();
+        mockMvc.perform(get("/api/products/" + productId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/sku/SKU-CACHE-1")).andExpect(status().isOk());
+
+        // Written as another node would: straight to the database, with no local eviction
+        Product product = productRepository.findById(productId).orElseThrow();
+        product.setName("Renamed Elsewhere");
+        Product renamed = productRepository.save(product);
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.data.name").value("Cached Product"));
+
+        eventPublisher.publishEvent(new ProductChangedEvent(productMapper.toResponse(renamed)));
+
+        mockMvc.perform(get("/api/products/" + productId))
+                .andExpect(jsonPath("$.data.name").value("Renamed Elsewhere"));
+        mockMvc.perform(get("/api/products/sku/SKU-CACHE-1"))
+                .andExpect(jsonPath("$.data.name").value("Renamed Elsewhere"));
+    }
+
+    @Test
+    @DisplayName("Change feed returns each change once and advances the watermark")
+    void changeFeed() throws Exception {
+        String watermark = drainChanges("").watermark();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ProductRequest request = ProductRequest.builder()
+                    .name("Change " + i)
+                    .price(new BigDecimal("3.00"))
+                    .skuCode("SKU-CHANGE-" + i)
+                    .category("Change")
+                    .build();
+            String created = mockMvc.perform(post("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(created).path("data").path("id").asLong());
+        }
+        mockMvc.perform(delete("/api/products/" + ids.get(0))).andExpect(status().isOk());
+
+        Changes changes = drainChanges(watermark);
+        assertThat(changes.skuCodes()).containsExactly("SKU-CHANGE-1", "SKU-CHANGE-2", "SKU-CHANGE-0");
+        assertThat(changes.active()).containsExactly(true, true, false);
+        assertThat(drainChanges(changes.watermark()).skuCodes()).isEmpty();
+    }
+
+    private Changes drainChanges(String since) throws Exception {
+        List<String> skuCodes = new ArrayList<>();
+        List<Boolean> active = new ArrayList<>();
+        String watermark = since;
+        JsonNode data;
+        do {
+            String body = mockMvc.perform(get("/api/products/changes").param("since", watermark).param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            data = objectMapper.readTree(body).path("data");
+            data.path("changes").forEach(product -> {
+                skuCodes.add(product.path("skuCode").asText());
+                active.add(product.path("active").asBoolean());
+            });
+            watermark = data.path("nextWatermark").asText();
+        } while (data.path("hasMore").asBoolean());
+        return new Changes(skuCodes, active, watermark);
+    }
+
+    private record Changes(List<String> skuCodes, List<Boolean> active, String watermark) {}
+
+    @Test
+    @DisplayName("Export streams active products of a category as NDJSON")
+    void exportProducts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            ProductRequest request = ProductRequest.builder()
+                    .name("Export " + i)
+                    .price(new BigDecimal("5.00"))
+                    .skuCode("SKU-EXPORT-" + i)
+                    .category("Export")
+                    .build();
+            mockMvc.perform(post("/api/products")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/products/export").param("category", "Export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines.get(0)).path("skuCode").asText()).isEqualTo("SKU-EXPORT-0");
+    }
+
+    @Test
+    @DisplayName("Import inserts valid CSV rows and reports the rest per line")
+    void importProducts() throws Exception {
+        String csv = String.join("\n",
+                "skuCode,name,price,category",
+                "SKU-IMPORT-1,\"Widget, large\",12.50,Import",
+                "SKU-IMPORT-2,Gadget,not-a-price,Import",
+                "SKU-IMPORT-1,Widget again,3.00,Import",
+                "SKU-IMPORT-3,,4.00,Import",
+                "SKU-IMPORT-4,Gizmo,7.25,Import");
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalRows").value(5))
+                .andExpect(jsonPath("$.data.imported").value(2))
+                .andExpect(jsonPath("$.data.failed").value(3))
+                .andExpect(jsonPath("$.data.errors[*].line").value(org.hamcrest.Matchers.containsInAnyOrder(3, 4, 5)));
+
+        mockMvc.perform(get("/api/products/sku/SKU-IMPORT-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value("Widget, large"));
+
+        mockMvc.perform(post("/api/products/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"skuCode\":\"SKU-IMPORT-4\",\"name\":\"Gizmo\",\"price\":7.25}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(0))
+                .andExpect(jsonPath("$.data.errors[0].message").value("Product with SKU code 'SKU-IMPORT-4' already exists"));
+    }
 }
@@ -0,0 +1,54 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fresh context, so no ID block is cached from a previous test's inserts
+@DataJpaTest
+@AutoConfigureJson
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+@DisplayName("Product Sequence Initializer Tests")
+class ProductSequenceInitializerTest {
+
+    @Autowired
+    private ProductSequenceInitializer sequenceInitializer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should move a lagging sequence past IDs assigned before it existed")
+    void initialize_SequenceBehindExistingIds() {
+        jdbcTemplate.update("INSERT INTO products (id, name, price, sku_code, active) "
+                + "VALUES (1000, 'Legacy Product', 10.00, 'SKU-LEGACY', true)");
+        jdbcTemplate.execute("ALTER SEQUENCE product_seq RESTART WITH 1");
+
+        sequenceInitializer.initialize();
+        Product saved = productRepository.saveAndFlush(Product.builder()
+                .name("New Product")
+                .price(new BigDecimal("20.00"))
+                .skuCode("SKU-AFTER-LEGACY")
+                .build());
+
+        assertThat(saved.getId()).isGreaterThan(1000L);
+    }
+}
@@ -1,8 +1,20 @@
 package com.ecommerce.product.controller;
 
+import com.ecommerce.common.dto.PagedResponse;
+import com.ecommerce.common.web.ETags;
+import com.ecommerce.product.config.ProductSequenceInitializer;
 import com.ecommerce.product.dto.ProductRequest;
 import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSummary;
+import com.ecommerce.product.dto.ProductVersion;
+import com.ecommerce.product.service.ProductChangeFollower;
+import com.ecommerce.product.service.ProductChangeService;
+import com.ecommerce.product.service.ProductExportService;
+import com.ecommerce.product.service.ProductImportService;
+import com.ecommerce.product.service.ProductSearchIndex;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.service.ProductSkuFilter;
+import com.ecommerce.product.service.ProductSuggestIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,8 +25,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +47,30 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductChangeService productChangeService;
+
+    @MockBean
+    private ProductChangeFollower productChangeFollower;
+
+    @MockBean
+    private ProductSequenceInitializer productSequenceInitializer;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockBean
+    private ProductSuggestIndex productSuggestIndex;
+
+    @MockBean
+    private ProductSkuFilter productSkuFilter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -80,6 +122,18 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.data.id").value(1));
     }
 
+    @Test
+    @DisplayName("GET /api/products/{id} - Should answer 304 from the version without loading the product")
+    void getProductById_NotModified_SkipsLoad() throws Exception {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(productService.getProductVersionById(1L)).thenReturn(Optional.of(new ProductVersion(1L, updatedAt)));
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", ETags.strong(1L, updatedAt)))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).getProductById(1L);
+    }
+
     @Test
     @DisplayName("POST /api/products - Should return 400 for invalid request")
     void createProduct_InvalidRequest_ReturnsBadRequest() throws Exception {
@@ -91,6 +145,49 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("GET /api/products/search - Should return 400 for an out-of-range page or size")
+    void searchProducts_InvalidPaging_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products/search").param("q", "laptop").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/search").param("q", "laptop").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/search").param("q", "laptop").param("size", "101"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/products - Should return 400 for an out-of-range cursor page size")
+    void getAllProducts_CursorSizeTooLarge_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products").param("after", "").param("size", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/category/Tools").param("after", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        verify(productService, never()).scrollProducts(any(), anyInt(), any(), any());
+        verify(productService, never()).scrollProductsByCategory(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/products - Offset pages keep their totals; cursor pages omit them")
+    void getAllProducts_PageShapes() throws Exception {
+        when(productService.getAllProducts(0, 20, "createdAt", "desc")).thenReturn(PagedResponse.<ProductSummary>builder()
+                .content(List.of()).pageNumber(0).pageSize(20).totalElements(0L).totalPages(0).last(true).build());
+        when(productService.scrollProducts("", 20, "createdAt", "desc")).thenReturn(PagedResponse.<ProductSummary>builder()
+                .content(List.of()).pageSize(20).last(true).build());
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pageNumber").value(0))
+                .andExpect(jsonPath("$.data.totalElements").value(0))
+                .andExpect(jsonPath("$.data.totalPages").value(0))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+        mockMvc.perform(get("/api/products").param("after", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pageSize").value(20))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.data.pageNumber").doesNotExist());
+    }
+
     @Test
     @DisplayName("DELETE /api/products/{id} - Should delete product")
     void deleteProduct_ReturnsOk() throws Exception {
@@ -98,4 +195,21 @@ class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
     }
+
+    @Test
+    @DisplayName("GET /api/products/batch - Should return products for the given IDs")
+    void getProductsByIds_ReturnsOk() throws Exception {
+        ProductResponse response = ProductResponse.builder()
+                .id(3L)
+                .name("Test Product")
+                .skuCode("SKU-TEST")
+                .build();
+
+        when(productService.getProductsByIds(List.of(3L, 4L))).thenReturn(List.of(response));
+
+        mockMvc.perform(get("/api/products/batch").param("ids", "3,4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(3));
+    }
 }
@@ -0,0 +1,44 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductChangesResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Product Change Follower Tests")
+class ProductChangeFollowerTest {
+
+    private final ProductChangeService productChangeService = mock(ProductChangeService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    @Test
+    @DisplayName("Should republish every change until caught up, then resume from the last watermark")
+    void follow_RepublishesChanges() {
+        ProductResponse first = ProductResponse.builder().id(1L).skuCode("SKU-1").build();
+        ProductResponse second = ProductResponse.builder().id(2L).skuCode("SKU-2").build();
+        when(productChangeService.watermarkNow()).thenReturn("start");
+        when(productChangeService.getChangesSince(eq("start"), anyInt())).thenReturn(ProductChangesResponse.builder()
+                .changes(List.of(first)).nextWatermark("w1").hasMore(true).build());
+        when(productChangeService.getChangesSince(eq("w1"), anyInt())).thenReturn(ProductChangesResponse.builder()
+                .changes(List.of(second)).nextWatermark("w2").hasMore(false).build());
+        when(productChangeService.getChangesSince(eq("w2"), anyInt())).thenReturn(ProductChangesResponse.builder()
+                .changes(List.of()).nextWatermark("w2").hasMore(false).build());
+        ProductChangeFollower follower = new ProductChangeFollower(productChangeService, eventPublisher);
+
+        follower.follow();
+        follower.follow();
+
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(first));
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(second));
+        verify(productChangeService).getChangesSince(eq("w2"), anyInt());
+        verifyNoMoreInteractions(eventPublisher);
+    }
+}
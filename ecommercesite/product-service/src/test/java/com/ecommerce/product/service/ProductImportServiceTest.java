@@ -0,0 +1,88 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductImportResult;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.ecommerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Product Import Service Tests")
+class ProductImportServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ProductImportService importService = new ProductImportService(productRepository,
+            Mappers.getMapper(ProductMapper.class), new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate,
+            mock(ApplicationEventPublisher.class), new ProductSkuFilter(productRepository, 1000, 0.01), 3);
+
+    ProductImportServiceTest() {
+        when(productRepository.findSkuCodesIn(any())).thenReturn(Set.of());
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed chunk row by row and reject only the failing row")
+    void importProducts_ChunkFails_RetriesRowByRow() throws Exception {
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.stream().anyMatch(product -> product.getSkuCode().equals("SKU-TAKEN"))) {
+                throw new DataIntegrityViolationException("duplicate key", new IllegalStateException("unique violation on SKU-TAKEN"));
+            }
+            return products;
+        });
+
+        ProductImportResult result = importService.importProducts(csv("SKU-A", "SKU-TAKEN", "SKU-B"), ProductImportService.Format.CSV);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(3);
+            assertThat(error.getMessage()).isEqualTo("Insert failed: unique violation on SKU-TAKEN");
+        });
+    }
+
+    @Test
+    @DisplayName("Should count every failure but itemise only the first MAX_ERRORS")
+    void importProducts_ManyFailures_CapsErrors() throws Exception {
+        String[] skuCodes = IntStream.range(0, ProductImportService.MAX_ERRORS + 5)
+                .mapToObj(i -> "")
+                .toArray(String[]::new);
+
+        ProductImportResult result = importService.importProducts(csv(skuCodes), ProductImportService.Format.CSV);
+
+        assertThat(result.getFailed()).isEqualTo(ProductImportService.MAX_ERRORS + 5);
+        assertThat(result.getErrors()).hasSize(ProductImportService.MAX_ERRORS);
+    }
+
+    private static ByteArrayInputStream csv(String... skuCodes) {
+        String rows = IntStream.range(0, skuCodes.length)
+                .mapToObj(i -> skuCodes[i] + ",Product " + i + ",9.99")
+                .collect(Collectors.joining("\n"));
+        return new ByteArrayInputStream(("skuCode,name,price\n" + rows).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.common.dto.PagedResponse;
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Product Search Index Tests")
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex(mock(ProductService.class));
+        searchIndex.rebuild(List.of(
+                product(1L, "Trail Running Shoe", "Footwear", "Lightweight shoe for trail running"),
+                product(2L, "Running Socks", "Apparel", "Breathable socks"),
+                product(3L, "Hiking Boot", "Footwear", "Waterproof boot, great for trail hikes")));
+    }
+
+    @Test
+    @DisplayName("Should require every term and rank name matches first")
+    void search_RanksByRelevance() {
+        PagedResponse<ProductResponse> result = searchIndex.search("trail", 0, 10);
+
+        assertThat(result.getContent()).extracting(ProductResponse::getId).containsExactly(1L, 3L);
+        assertThat(searchIndex.search("running SHOE", 0, 10).getContent())
+                .extracting(ProductResponse::getId).containsExactly(1L);
+        assertThat(searchIndex.search("running boot", 0, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and deactivations")
+    void onProductChanged_UpdatesIndex() {
+        searchIndex.onProductChanged(new ProductChangedEvent(product(2L, "Merino Socks", "Apparel", null)));
+        ProductResponse deactivated = product(3L, "Hiking Boot", "Footwear", null);
+        deactivated.setActive(false);
+        searchIndex.onProductChanged(new ProductChangedEvent(deactivated));
+
+        assertThat(searchIndex.search("running", 0, 10).getContent())
+                .extracting(ProductResponse::getId).containsExactly(1L);
+        assertThat(searchIndex.search("merino", 0, 10).getContent())
+                .extracting(ProductResponse::getId).containsExactly(2L);
+        assertThat(searchIndex.search("footwear", 0, 10).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should build the same index in parallel chunks and paginate hits")
+    void rebuild_LargeCatalog() {
+        searchIndex.rebuild(IntStream.rangeClosed(1, 5000)
+                .mapToObj(i -> product((long) i, "Widget " + i, i % 2 == 0 ? "Even" : "Odd", null))
+                .toList());
+
+        PagedResponse<ProductResponse> page = searchIndex.search("widget even", 1, 100);
+
+        assertThat(page.getTotalElements()).isEqualTo(2500);
+        assertThat(page.getTotalPages()).isEqualTo(25);
+        assertThat(page.getContent()).hasSize(100);
+        assertThat(page.getContent().get(0).getId()).isEqualTo(202L);
+    }
+
+    private static ProductResponse product(Long id, String name, String category, String description) {
+        return ProductResponse.builder()
+                .id(id)
+                .name(name)
+                .category(category)
+                .description(description)
+                .active(true)
+                .build();
+    }
+}
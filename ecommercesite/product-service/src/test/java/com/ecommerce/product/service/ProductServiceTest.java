@@ -13,10 +13,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,6 +38,19 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductPopularity productPopularity;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+
+    // Never loaded, so it lets every SKU through unless a test stubs it
+    @Spy
+    private ProductSkuFilter productSkuFilter = new ProductSkuFilter(mock(ProductRepository.class), 1000, 0.01);
+
     @InjectMocks
     private ProductService productService;
 
@@ -97,6 +115,18 @@ class ProductServiceTest {
                 .hasMessageContaining("SKU-001");
     }
 
+    @Test
+    @DisplayName("Should reject a duplicate SKU the filter has not seen yet")
+    void createProduct_DuplicateSkuMissedByFilter_ThrowsException() {
+        lenient().doReturn(false).when(productSkuFilter).mightContain("SKU-001");
+        when(productRepository.existsBySkuCode("SKU-001")).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.createProduct(productRequest))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("SKU-001");
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
     @Test
     @DisplayName("Should get product by ID")
     void getProductById_Success() {
@@ -154,4 +184,81 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getSkuCode()).isEqualTo("SKU-001");
     }
+
+    @Test
+    @DisplayName("Should reject a SKU the filter rules out without querying")
+    void getProductBySkuCode_DefiniteMiss_SkipsQuery() {
+        doReturn(false).when(productSkuFilter).mightContain("SKU-404");
+
+        assertThatThrownBy(() -> productService.getProductBySkuCode("SKU-404"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads from the cache")
+    void getProductById_CachesResponse() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+        productService.getProductById(1L);
+        ProductResponse result = productService.getProductById(1L);
+
+        assertThat(result).isSameAs(productResponse);
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should evict cached product on update")
+    void updateProduct_EvictsCachedProduct() {
+        when(productRepository.findBySkuCode("SKU-001")).thenReturn(Optional.of(product));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+        productService.getProductBySkuCode("SKU-001");
+        productService.updateProduct(1L, productRequest);
+        productService.getProductBySkuCode("SKU-001");
+
+        verify(productRepository, times(2)).findBySkuCode("SKU-001");
+        verify(productCache).evict(1L, "SKU-001", "SKU-001");
+    }
+
+    @Test
+    @DisplayName("Should return products by IDs in request order, skipping unknown IDs")
+    void getProductsByIds_PreservesRequestOrder() {
+        Product second = Product.builder().id(2L).name("Second").skuCode("SKU-002").active(true).build();
+        ProductResponse secondResponse = ProductResponse.builder().id(2L).name("Second").skuCode("SKU-002").build();
+
+        when(productRepository.findAllById(List.of(2L, 99L, 1L))).thenReturn(List.of(product, second));
+        when(productMapper.toResponse(product)).thenReturn(productResponse);
+        when(productMapper.toResponse(second)).thenReturn(secondResponse);
+
+        List<ProductResponse> result = productService.getProductsByIds(List.of(2L, 99L, 1L));
+
+        assertThat(result).extracting(ProductResponse::getId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should apply the batch limit to distinct IDs")
+    void getProductsByIds_RepeatedIds_CountOnce() {
+        List<Long> ids = LongStream.rangeClosed(1, 150).map(i -> i % 100 + 1).boxed().toList();
+        when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
+        when(productMapper.toResponse(product)).thenReturn(productResponse);
+
+        List<ProductResponse> result = productService.getProductsByIds(ids);
+
+        assertThat(result).extracting(ProductResponse::getId).containsExactly(1L);
+        verify(productRepository).findAllById(argThat(requested -> ((List<?>) requested).size() == 100));
+    }
+
+    @Test
+    @DisplayName("Should reject batch lookups above the limit")
+    void getProductsByIds_TooMany_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().toList();
+
+        assertThatThrownBy(() -> productService.getProductsByIds(ids))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(productRepository);
+    }
 }
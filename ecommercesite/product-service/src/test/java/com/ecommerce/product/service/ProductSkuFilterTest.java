@@ -0,0 +1,64 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Product SKU Filter Tests")
+class ProductSkuFilterTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSkuFilter skuFilter = new ProductSkuFilter(productRepository, 10_000, 0.01);
+
+    @Test
+    @DisplayName("Should let every SKU through until loaded")
+    void mightContain_BeforeLoad() {
+        assertThat(skuFilter.mightContain("SKU-UNKNOWN")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should never miss a loaded or added SKU and rarely pass an absent one")
+    void mightContain_AfterLoad() {
+        when(productRepository.streamAllSkuCodes())
+                .thenReturn(IntStream.range(0, 5_000).mapToObj(i -> "SKU-" + i));
+        skuFilter.load();
+        IntStream.range(5_000, 10_000).forEach(i -> skuFilter.add("SKU-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> skuFilter.mightContain("SKU-" + i))).isTrue();
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> skuFilter.mightContain("ABSENT-" + i))
+                .count();
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(skuFilter.falsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    @Test
+    @DisplayName("Should add SKUs created on other nodes from change events")
+    void onProductChanged_AddsSku() {
+        when(productRepository.streamAllSkuCodes()).thenReturn(Stream.empty());
+        skuFilter.load();
+
+        skuFilter.onProductChanged(new ProductChangedEvent(ProductResponse.builder().id(1L).skuCode("SKU-REMOTE").build()));
+
+        assertThat(skuFilter.mightContain("SKU-REMOTE")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should load nothing into an empty catalog")
+    void mightContain_EmptyCatalog() {
+        when(productRepository.streamAllSkuCodes()).thenReturn(Stream.empty());
+        skuFilter.load();
+
+        assertThat(skuFilter.mightContain("SKU-1")).isFalse();
+        assertThat(skuFilter.falsePositiveRate()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
+import com.ecommerce.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Product Suggest Index Tests")
+class ProductSuggestIndexTest {
+
+    private ProductPopularity popularity;
+    private ProductSuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        popularity = new ProductPopularity();
+        suggestIndex = new ProductSuggestIndex(mock(ProductService.class), popularity, 4, 1000);
+    }
+
+    @Test
+    @DisplayName("Should match names and SKUs by case-insensitive prefix, most viewed first")
+    void suggest_RanksByPopularity() {
+        popularity.recordView(3L);
+        popularity.recordView(3L);
+        popularity.recordView(2L);
+        suggestIndex.rebuild(List.of(
+                product(1L, "Running Shoe", "RUN-001"),
+                product(2L, "Running Socks", "RUN-002"),
+                product(3L, "Rucksack", "BAG-001")));
+
+        assertThat(suggestIndex.suggest("ru", 10)).extracting(ProductSuggestion::getText)
+                .containsExactly("Rucksack", "RUN-002", "Running Socks", "RUN-001", "Running Shoe");
+        assertThat(suggestIndex.suggest("run-", 10)).extracting(ProductSuggestion::getType)
+                .containsOnly(ProductSuggestion.Type.SKU);
+        assertThat(suggestIndex.suggest("running s", 1)).extracting(ProductSuggestion::getProductId)
+                .containsExactly(2L);
+        assertThat(suggestIndex.suggest("boot", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should shadow changed products until the next compaction")
+    void onProductChanged_OverlaysTrie() {
+        suggestIndex.rebuild(List.of(product(1L, "Running Shoe", "RUN-001"), product(2L, "Rucksack", "BAG-001")));
+        ProductResponse deactivated = product(2L, "Rucksack", "BAG-001");
+        deactivated.setActive(false);
+
+        suggestIndex.onProductChanged(new ProductChangedEvent(product(1L, "Trail Shoe", "RUN-001")));
+        suggestIndex.onProductChanged(new ProductChangedEvent(deactivated));
+        suggestIndex.onProductChanged(new ProductChangedEvent(product(3L, "Rain Jacket", "JKT-001")));
+
+        assertThat(suggestIndex.suggest("r", 10)).extracting(ProductSuggestion::getText)
+                .containsExactly("Rain Jacket", "RUN-001");
+        suggestIndex.compact();
+        assertThat(suggestIndex.suggest("r", 10)).extracting(ProductSuggestion::getText)
+                .containsExactly("Rain Jacket", "RUN-001");
+        assertThat(suggestIndex.suggest("trail", 10)).extracting(ProductSuggestion::getProductId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should serve wide prefixes from precomputed top lists")
+    void suggest_LargeCatalog() {
+        IntStream.rangeClosed(1, 200).forEach(i -> {
+            for (int view = 0; view < i % 7; view++) {
+                popularity.recordView((long) i);
+            }
+        });
+        suggestIndex.rebuild(IntStream.rangeClosed(1, 200)
+                .mapToObj(i -> product((long) i, "Widget " + i, "WID-" + i))
+                .toList());
+
+        List<ProductSuggestion> wide = suggestIndex.suggest("w", 10);
+        List<ProductSuggestion> narrow = suggestIndex.suggest("widget 1", 3);
+
+        assertThat(wide).hasSize(10).allSatisfy(s -> assertThat(s.getProductId() % 7).isEqualTo(6));
+        assertThat(wide.get(0).getText()).isEqualTo("WID-104");
+        assertThat(narrow).extracting(ProductSuggestion::getText)
+                .containsExactly("Widget 104", "Widget 111", "Widget 118");
+    }
+
+    private static ProductResponse product(Long id, String name, String skuCode) {
+        return ProductResponse.builder()
+                .id(id)
+                .name(name)
+                .skuCode(skuCode)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.product.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency of {@link SuggestionTrie} over a 1M-entry catalog (500k products, each with a
+ * name and a SKU). Not part of the test suite; run it after {@code mvn test-compile} with
+ * {@link #main}, or with {@code org.openjdk.jmh.Main} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class SuggestionTrieBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "sa", "to", "vi", "an", "el",
+            "or", "ub", "tra", "pro", "ster", "lux", "max", "dri", "fen", "gal"};
+
+    private static final int PRODUCTS = 500_000;
+
+    // One character matches ~1/20 of names, the SKU prefix matches half the catalog
+    @Param({"k", "kalo", "kalo mi", "SKU-0012", "zz"})
+    private String prefix;
+
+    private SuggestionTrie trie;
+
+    @Setup(Level.Trial)
+    public void buildCatalog() {
+        Random random = new Random(42);
+        List<SuggestionTrie.Entry> entries = new ArrayList<>(PRODUCTS * 2);
+        for (int id = 1; id <= PRODUCTS; id++) {
+            // Heavy-tailed popularity: a few products get most of the views
+            int weight = (int) (1_000_000 / (1 + random.nextInt(1_000_000)));
+            entries.add(new SuggestionTrie.Entry(name(random), id, false, weight));
+            entries.add(new SuggestionTrie.Entry(String.format("SKU-%07d", id), id, true, weight));
+        }
+        trie = SuggestionTrie.build(entries, 2 * ProductSuggestIndex.MAX_SUGGESTIONS, 256);
+        System.out.printf("%n%d entries, %d precomputed prefixes, ~%d MB%n",
+                trie.size(), trie.precomputedPrefixes(), trie.memoryBytes() >> 20);
+    }
+
+    @Benchmark
+    public List<String> lookup() {
+        int[] hits = trie.lookup(prefix, ProductSuggestIndex.MAX_SUGGESTIONS, id -> false);
+        List<String> texts = new ArrayList<>(hits.length);
+        for (int hit : hits) {
+            texts.add(trie.text(hit));
+        }
+        return texts;
+    }
+
+    private static String name(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 2 + random.nextInt(2);
+        for (int word = 0; word < words; word++) {
+            if (word > 0) {
+                name.append(' ');
+            }
+            int syllables = 2 + random.nextInt(2);
+            for (int i = 0; i < syllables; i++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SuggestionTrieBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
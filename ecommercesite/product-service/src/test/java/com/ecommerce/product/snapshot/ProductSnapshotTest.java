@@ -0,0 +1,92 @@
+package com.ecommerce.product.snapshot;
+
+import com.ecommerce.product.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Product Snapshot Tests")
+class ProductSnapshotTest {
+
+    private final ObjectWriter writer = new ObjectMapper().findAndRegisterModules().writer();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should find products by ID and SKU and miss absent ones")
+    void findByIdAndSku() throws IOException {
+        Path file = directory.resolve("products.bin");
+        int written = ProductSnapshot.write(file, LongStream.rangeClosed(1, 2_000).mapToObj(id -> product(id, "v1")),
+                writer, product -> "\"" + product.getId() + "\"");
+
+        ProductSnapshot snapshot = ProductSnapshot.open(file);
+
+        assertThat(written).isEqualTo(2_000);
+        assertThat(snapshot.size()).isEqualTo(2_000);
+        ProductSnapshot.Hit byId = snapshot.findById(1_234);
+        assertThat(byId.etag()).isEqualTo("\"1234\"");
+        assertThat(text(byId.json())).contains("\"id\":1234", "\"name\":\"Product 1234 v1\"");
+        assertThat(text(snapshot.findBySkuCode("SKU-0777").json())).contains("\"id\":777");
+        assertThat(snapshot.findById(2_001)).isNull();
+        assertThat(snapshot.findById(0)).isNull();
+        assertThat(snapshot.findBySkuCode("SKU-9999")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep an open snapshot readable after the file is replaced")
+    void atomicReplace() throws IOException {
+        Path file = directory.resolve("products.bin");
+        ProductSnapshot.write(file, Stream.of(product(1, "v1")), writer, product -> "\"a\"");
+        ProductSnapshot old = ProductSnapshot.open(file);
+
+        ProductSnapshot.write(file, Stream.of(product(1, "v2"), product(2, "v2")), writer, product -> "\"b\"");
+        ProductSnapshot current = ProductSnapshot.open(file);
+
+        assertThat(text(old.findById(1).json())).contains("Product 1 v1");
+        assertThat(old.findById(2)).isNull();
+        assertThat(text(current.findById(1).json())).contains("Product 1 v2");
+        assertThat(current.size()).isEqualTo(2);
+        assertThat(directory.toFile().list()).containsExactly("products.bin");
+    }
+
+    @Test
+    @DisplayName("Should reject products out of ID order and leave the old file in place")
+    void rejectsUnorderedIds() throws IOException {
+        Path file = directory.resolve("products.bin");
+        ProductSnapshot.write(file, Stream.of(product(1, "v1")), writer, product -> "\"a\"");
+
+        assertThatThrownBy(() -> ProductSnapshot.write(file, Stream.of(product(2, "v2"), product(1, "v2")),
+                writer, product -> "\"b\""))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(ProductSnapshot.open(file).size()).isEqualTo(1);
+        assertThat(directory.toFile().list()).containsExactly("products.bin");
+    }
+
+    private static ProductResponse product(long id, String version) {
+        return ProductResponse.builder()
+                .id(id)
+                .name("Product " + id + " " + version)
+                .price(new BigDecimal("9.99"))
+                .skuCode(String.format("SKU-%04d", id))
+                .active(true)
+                .build();
+    }
+
+    private static String text(ByteBuffer json) {
+        return StandardCharsets.UTF_8.decode(json).toString();
+    }
+}